@@ -0,0 +1,87 @@
+package com.auctionaggregator.auction.bidding;
+
+import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.exception.BidException;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * In-memory view of the bidding state of a single auction.
+ * <p>
+ * A book is owned by exactly one sequencer thread and is never shared, so it
+ * carries no synchronization. Bids are checked against the book before any
+ * database work is done, which lets hopeless bids be rejected without a query.
+ */
+@Getter
+public class AuctionBook {
+    
+    private final String auctionId;
+    private final String sellerId;
+    private final BigDecimal startingPrice;
+    private final BigDecimal bidIncrement;
+    private final BigDecimal buyNowPrice;
+    
+    private Auction.AuctionStatus status;
+    private LocalDateTime endTime;
+    private BigDecimal currentPrice;
+    private String leadingBidId;
+    
+    private AuctionBook(Auction auction) {
+        this.auctionId = auction.getId();
+        this.sellerId = auction.getSellerId();
+        this.startingPrice = auction.getStartingPrice();
+        this.bidIncrement = auction.getBidIncrement();
+        this.buyNowPrice = auction.getBuyNowPrice();
+        sync(auction);
+    }
+    
+    public static AuctionBook from(Auction auction) {
+        return new AuctionBook(auction);
+    }
+    
+    public BigDecimal getMinimumBid() {
+        BigDecimal price = currentPrice != null ? currentPrice : startingPrice;
+        return price.add(bidIncrement);
+    }
+    
+    public void validate(String bidderId, BigDecimal amount, LocalDateTime now) {
+        if (status != Auction.AuctionStatus.ACTIVE && status != Auction.AuctionStatus.ENDING_SOON) {
+            throw new BidException("Auction is not active");
+        }
+        
+        if (now.isAfter(endTime)) {
+            throw new BidException("Auction has ended");
+        }
+        
+        if (sellerId.equals(bidderId)) {
+            throw new BidException("Sellers cannot bid on their own auctions");
+        }
+        
+        BigDecimal minimumBid = getMinimumBid();
+        if (amount.compareTo(minimumBid) < 0) {
+            throw new BidException("Bid amount must be at least " + minimumBid);
+        }
+    }
+    
+    /**
+     * Whether a bid can be accepted against the book alone, without proxy
+     * resolution or ending the auction.
+     */
+    public boolean isPlainBid(BigDecimal amount, BigDecimal maxAmount) {
+        return maxAmount == null && (buyNowPrice == null || amount.compareTo(buyNowPrice) < 0);
+    }
+    
+    public void accept(String bidId, BigDecimal amount) {
+        this.leadingBidId = bidId;
+        this.currentPrice = amount;
+    }
+    
+    public void sync(Auction auction) {
+        this.status = auction.getStatus();
+        this.endTime = auction.getEndTime();
+        this.currentPrice = auction.getCurrentPrice();
+        this.leadingBidId = auction.getLeadingBidId();
+    }
+}
@@ -0,0 +1,162 @@
+package com.auctionaggregator.auction.bidding;
+
+import com.auctionaggregator.auction.config.BiddingConfiguration;
+import com.auctionaggregator.auction.exception.BidException;
+import com.auctionaggregator.auction.repository.AuctionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Routes all work for an auction to a single writer thread.
+ * <p>
+ * Auctions are hashed onto a fixed number of shards, each backed by a
+ * single-threaded executor. Every {@link AuctionBook} is only read and
+ * written from its shard thread, so bids on the same auction are applied
+ * strictly one after another without any locking.
+ * <p>
+ * A book is rebuilt from the database only after the bid journal has been
+ * drained, so it never misses a bid that was journaled and acknowledged but
+ * not yet written to the auction row.
+ */
+@Component
+@Slf4j
+public class AuctionBookSequencer {
+    
+    private final AuctionRepository auctionRepository;
+    private final BiddingConfiguration biddingConfiguration;
+    private final BidJournal bidJournal;
+    private final BidJournalDrainer bidJournalDrainer;
+    private final ExecutorService[] shards;
+    private final Map<String, AuctionBook> books = new ConcurrentHashMap<>();
+    
+    public AuctionBookSequencer(AuctionRepository auctionRepository, BiddingConfiguration biddingConfiguration,
+                                BidJournal bidJournal, BidJournalDrainer bidJournalDrainer) {
+        this.auctionRepository = auctionRepository;
+        this.biddingConfiguration = biddingConfiguration;
+        this.bidJournal = bidJournal;
+        this.bidJournalDrainer = bidJournalDrainer;
+        this.shards = new ExecutorService[biddingConfiguration.getSequencerShards()];
+        for (int i = 0; i < shards.length; i++) {
+            String threadName = "bid-sequencer-" + i;
+            shards[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+    
+    /**
+     * Runs the task on the shard that owns the auction and waits for its result.
+     * <p>
+     * A task that has not started when the timeout expires is withdrawn and
+     * never runs. A task that has already started may still commit, so the
+     * caller keeps waiting for it and, failing that, is told the outcome is
+     * unknown rather than to retry.
+     *
+     * @param auctionId the ID of the auction
+     * @param task work to apply against the auction book
+     * @return the task result
+     * @throws BidException if the auction does not exist or the shard does not answer in time
+     */
+    public <T> T execute(String auctionId, Function<AuctionBook, T> task) {
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future = shardFor(auctionId).submit(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                // Withdrawn by a caller that timed out before the task started
+                return null;
+            }
+            return task.apply(getOrLoadBook(auctionId));
+        });
+        
+        try {
+            return await(future);
+        } catch (TimeoutException e) {
+            if (claimed.compareAndSet(false, true)) {
+                future.cancel(false);
+                throw new BidException("Bid could not be processed in time, please retry");
+            }
+        }
+        
+        try {
+            return await(future);
+        } catch (TimeoutException e) {
+            throw new BidException("Bid could not be confirmed, please check your bids before retrying", e);
+        }
+    }
+    
+    private <T> T await(Future<T> future) throws TimeoutException {
+        try {
+            return future.get(biddingConfiguration.getSequencerTimeout(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BidException("Bid processing failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BidException("Bid processing interrupted", e);
+        }
+    }
+    
+    /**
+     * Drops the cached book so the next task reloads it from the database,
+     * after draining the bid journal. Must be called whenever an auction
+     * changes outside the sequencer.
+     */
+    public void evict(String auctionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            shardFor(auctionId).execute(() -> books.remove(auctionId));
+            return;
+        }
+        
+        // Evicting before commit would let the next bid reload the old row
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                shardFor(auctionId).execute(() -> books.remove(auctionId));
+            }
+        });
+    }
+    
+    private AuctionBook getOrLoadBook(String auctionId) {
+        AuctionBook book = books.get(auctionId);
+        if (book == null) {
+            if (bidJournal.isEnabled()) {
+                // The row lacks journaled bids until they are drained, and the book must not go backwards
+                bidJournalDrainer.drain();
+            }
+            book = auctionRepository.findById(auctionId)
+                .map(AuctionBook::from)
+                .orElseThrow(() -> new BidException("Auction not found"));
+            books.put(auctionId, book);
+        }
+        return book;
+    }
+    
+    private ExecutorService shardFor(String auctionId) {
+        return shards[Math.floorMod(auctionId.hashCode(), shards.length)];
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        log.info("Shutting down bid sequencer");
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.auctionaggregator.auction.bidding;
+
+import com.auctionaggregator.auction.config.BiddingConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped log of accepted bids.
+ * <p>
+ * Records are written as {@code [length][crc32][json]} into fixed-size segment
+ * files. A background flusher forces the mapped segment to disk every few
+ * milliseconds and only then completes the futures returned by
+ * {@link #append}, so many bids share one fsync. {@link BidJournalDrainer}
+ * copies durable records into Postgres and advances the checkpoint; anything
+ * past the checkpoint is replayed after a restart.
+ */
+@Component
+@Slf4j
+public class BidJournal {
+    
+    private static final int HEADER_SIZE = 8;
+    private static final int ROLL_MARKER = -1;
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    
+    private final BiddingConfiguration.Journal config;
+    private final ObjectMapper objectMapper;
+    
+    private final Object writeLock = new Object();
+    private final Object flushLock = new Object();
+    private final Queue<PendingAck> pendingAcks = new ConcurrentLinkedQueue<>();
+    
+    private Path directory;
+    private ScheduledExecutorService flusher;
+    private long segment;
+    private MappedByteBuffer buffer;
+    private long appendSequence;
+    
+    private volatile JournalPosition durablePosition = JournalPosition.START;
+    private volatile JournalPosition checkpoint = JournalPosition.START;
+    
+    public BidJournal(BiddingConfiguration biddingConfiguration, ObjectMapper objectMapper) {
+        this.config = biddingConfiguration.getJournal();
+        this.objectMapper = objectMapper;
+    }
+    
+    @PostConstruct
+    public void init() throws IOException {
+        if (!config.isEnabled()) {
+            return;
+        }
+        
+        directory = Paths.get(config.getDirectory());
+        Files.createDirectories(directory);
+        checkpoint = readCheckpoint();
+        
+        // Walk forward from the checkpoint to find where the last durable record ends
+        JournalPosition end = checkpoint;
+        List<JournalEntry> batch;
+        while (!(batch = read(end, 1024, null)).isEmpty()) {
+            end = batch.get(batch.size() - 1).next();
+        }
+        end = skipRollMarker(end);
+        
+        segment = end.segment();
+        buffer = mapSegment(segment);
+        buffer.position(end.offset());
+        durablePosition = end;
+        
+        log.info("Bid journal opened at {} (checkpoint {}, end {})", directory.toAbsolutePath(), checkpoint, end);
+        
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "bid-journal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, config.getFlushInterval(), config.getFlushInterval(),
+            TimeUnit.MILLISECONDS);
+    }
+    
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+    
+    /**
+     * Appends a bid to the journal.
+     *
+     * @param bid the accepted bid
+     * @return a future that completes once the record has been forced to disk
+     */
+    public CompletableFuture<Void> append(JournaledBid bid) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(bid);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to serialize bid " + bid.getId(), e);
+        }
+        
+        int required = HEADER_SIZE + payload.length;
+        if (required + Integer.BYTES > config.getSegmentSize()) {
+            throw new IllegalArgumentException("Bid record larger than journal segment: " + bid.getId());
+        }
+        
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        
+        CompletableFuture<Void> ack = new CompletableFuture<>();
+        synchronized (writeLock) {
+            // Always leave room for the roll marker at the end of a segment
+            if (buffer.remaining() < required + Integer.BYTES) {
+                roll();
+            }
+            buffer.putInt(payload.length);
+            buffer.putInt((int) crc.getValue());
+            buffer.put(payload);
+            pendingAcks.add(new PendingAck(++appendSequence, ack));
+        }
+        return ack;
+    }
+    
+    /**
+     * Reads durable records starting at the given position.
+     *
+     * @param from position of the first record to read
+     * @param maxRecords upper bound on the number of records returned
+     * @return the records in append order, each with the position following it
+     */
+    public List<JournalEntry> readFrom(JournalPosition from, int maxRecords) {
+        return read(from, maxRecords, durablePosition);
+    }
+    
+    /**
+     * Forces every record appended so far to disk, so that {@link #readFrom} returns it.
+     */
+    public void sync() {
+        flush();
+    }
+    
+    public JournalPosition getCheckpoint() {
+        return checkpoint;
+    }
+    
+    /**
+     * Marks everything before the position as persisted and deletes segments that are no longer needed.
+     */
+    public void commitCheckpoint(JournalPosition position) {
+        try {
+            Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            Files.writeString(temp, position.segment() + " " + position.offset(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC);
+            Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            checkpoint = position;
+            
+            for (long old = position.segment() - 1; old >= 0; old--) {
+                if (!Files.deleteIfExists(segmentPath(old))) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write bid journal checkpoint", e);
+        }
+    }
+    
+    private void flush() {
+        // Serialized so that a slower flush never moves the durable position back
+        synchronized (flushLock) {
+            long sequence;
+            JournalPosition position;
+            MappedByteBuffer current;
+            synchronized (writeLock) {
+                sequence = appendSequence;
+                position = new JournalPosition(segment, buffer.position());
+                current = buffer;
+            }
+            
+            if (position.equals(durablePosition)) {
+                return;
+            }
+            
+            try {
+                current.force();
+            } catch (RuntimeException e) {
+                log.error("Failed to force bid journal to disk", e);
+                return;
+            }
+            durablePosition = position;
+            
+            PendingAck pending;
+            while ((pending = pendingAcks.peek()) != null && pending.sequence() <= sequence) {
+                pendingAcks.poll().future().complete(null);
+            }
+        }
+    }
+    
+    private void roll() {
+        buffer.putInt(ROLL_MARKER);
+        buffer.force();
+        segment++;
+        buffer = mapSegment(segment);
+        log.debug("Rolled bid journal to segment {}", segment);
+    }
+    
+    private List<JournalEntry> read(JournalPosition from, int maxRecords, JournalPosition limit) {
+        List<JournalEntry> entries = new ArrayList<>();
+        JournalPosition position = from;
+        
+        while (entries.size() < maxRecords && (limit == null || position.compareTo(limit) < 0)) {
+            Path path = segmentPath(position.segment());
+            if (!Files.exists(path)) {
+                break;
+            }
+            
+            JournalPosition segmentEnd = readSegment(path, position, maxRecords, limit, entries);
+            if (segmentEnd.segment() == position.segment()) {
+                // Stopped inside the segment: end of log, record limit or torn tail
+                break;
+            }
+            position = segmentEnd;
+        }
+        return entries;
+    }
+    
+    private JournalPosition readSegment(Path path, JournalPosition from, int maxRecords, JournalPosition limit,
+                                        List<JournalEntry> entries) {
+        JournalPosition position = from;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (entries.size() < maxRecords && (limit == null || position.compareTo(limit) < 0)) {
+                header.clear();
+                if (channel.read(header, position.offset()) < HEADER_SIZE) {
+                    return position;
+                }
+                header.flip();
+                int length = header.getInt();
+                int checksum = header.getInt();
+                
+                if (length == ROLL_MARKER) {
+                    return new JournalPosition(position.segment() + 1, 0);
+                }
+                if (length <= 0 || position.offset() + HEADER_SIZE + length > channel.size()) {
+                    return position;
+                }
+                
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                channel.read(payload, position.offset() + HEADER_SIZE);
+                CRC32 crc = new CRC32();
+                crc.update(payload.array());
+                if ((int) crc.getValue() != checksum) {
+                    // A torn write at the tail; everything before it is intact
+                    log.warn("Bid journal checksum mismatch at {}, treating as end of log", position);
+                    return position;
+                }
+                
+                position = new JournalPosition(position.segment(), position.offset() + HEADER_SIZE + length);
+                entries.add(new JournalEntry(objectMapper.readValue(payload.array(), JournaledBid.class), position));
+            }
+            return position;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read bid journal at " + position, e);
+        }
+    }
+    
+    private JournalPosition skipRollMarker(JournalPosition position) {
+        // A crash right after writing the marker leaves the tail pointing at the marker itself
+        Path path = segmentPath(position.segment());
+        if (!Files.exists(path)) {
+            return position;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer marker = ByteBuffer.allocate(Integer.BYTES);
+            if (channel.read(marker, position.offset()) == Integer.BYTES && marker.flip().getInt() == ROLL_MARKER) {
+                return new JournalPosition(position.segment() + 1, 0);
+            }
+            return position;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read bid journal at " + position, e);
+        }
+    }
+    
+    private MappedByteBuffer mapSegment(long index) {
+        try (FileChannel channel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < config.getSegmentSize()) {
+                channel.write(ByteBuffer.allocate(1), config.getSegmentSize() - 1);
+                channel.force(true);
+            }
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, config.getSegmentSize());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to map bid journal segment " + index, e);
+        }
+    }
+    
+    private JournalPosition readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(path)) {
+            String[] parts = Files.readString(path, StandardCharsets.UTF_8).trim().split(" ");
+            return new JournalPosition(Long.parseLong(parts[0]), Integer.parseInt(parts[1]));
+        }
+        
+        // No checkpoint yet: start from the oldest segment on disk
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                .filter(name -> name.startsWith("bids-") && name.endsWith(".journal"))
+                .map(name -> Long.parseLong(name.substring(5, name.length() - 8)))
+                .min(Long::compare)
+                .map(first -> new JournalPosition(first, 0))
+                .orElse(JournalPosition.START);
+        }
+    }
+    
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("bids-%020d.journal", index));
+    }
+    
+    @PreDestroy
+    public void close() {
+        if (flusher == null) {
+            return;
+        }
+        log.info("Closing bid journal");
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+    
+    public record JournalEntry(JournaledBid bid, JournalPosition next) {
+    }
+    
+    private record PendingAck(long sequence, CompletableFuture<Void> future) {
+    }
+}
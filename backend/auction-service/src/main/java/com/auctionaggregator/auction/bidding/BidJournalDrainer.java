@@ -0,0 +1,209 @@
+package com.auctionaggregator.auction.bidding;
+
+import com.auctionaggregator.auction.cache.AuctionCache;
+import com.auctionaggregator.auction.config.BiddingConfiguration;
+import com.auctionaggregator.auction.entity.Bid;
+import com.auctionaggregator.auction.service.AuctionSearchService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copies durable journal records into the {@code bids} table in batches.
+ * <p>
+ * Inserts are idempotent, so records between the last committed checkpoint
+ * and a crash are simply written again on the next start. Every drained
+ * auction gets a new version, which the {@link AuctionCache} tombstone
+ * carries so that a reader holding the old row cannot cache it again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BidJournalDrainer {
+    
+    private static final String INSERT_BID_SQL =
+        "INSERT INTO bids (id, auction_id, bidder_id, amount, max_amount, bid_type, status, bid_time, " +
+        "ip_address, user_agent, device_id, is_proxy_bid, is_winning_bid, source, active, " +
+        "created_at, updated_at, version) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE, ?, TRUE, ?, ?, 0) " +
+        "ON CONFLICT (id) DO NOTHING";
+    
+    // The previous leader is only demoted when the new bid really raised the price
+    private static final String PROMOTE_LEADER_SQL =
+        "WITH previous AS (SELECT leading_bid_id FROM auctions WHERE id = ? FOR UPDATE), " +
+        "promoted AS (" +
+        "  UPDATE auctions SET current_price = ?, leading_bid_id = ?, updated_at = ?, version = version + 1 " +
+        "  WHERE id = ? AND (current_price IS NULL OR current_price < ?) RETURNING id) " +
+        "UPDATE bids SET status = 'OUTBID', is_winning_bid = FALSE, updated_at = ? " +
+        "WHERE id = (SELECT leading_bid_id FROM previous) AND status = 'ACCEPTED' AND id <> ? " +
+        "AND EXISTS (SELECT 1 FROM promoted)";
+    
+    // A bid that did not beat the price already in the row is not the leader, whatever the journal says
+    private static final String DEMOTE_UNPROMOTED_SQL =
+        "UPDATE bids SET status = 'OUTBID', is_winning_bid = FALSE, updated_at = ? " +
+        "WHERE id = ? AND status = 'ACCEPTED' " +
+        "AND id IS DISTINCT FROM (SELECT leading_bid_id FROM auctions WHERE id = ?)";
+    
+    private static final String UPDATE_ACTIVITY_SQL =
+        "UPDATE auctions SET bid_count = bid_count + ?, " +
+        "last_bid_time = GREATEST(COALESCE(last_bid_time, ?), ?), version = version + 1 WHERE id = ?";
+    
+    // Rows written by the batch stay locked until commit, so these are the committed versions
+    private static final String SELECT_VERSIONS_SQL =
+        "SELECT id, version FROM auctions WHERE id = ANY (?)";
+    
+    private final BidJournal bidJournal;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BiddingConfiguration biddingConfiguration;
+    private final AuctionCache auctionCache;
+    private final AuctionSearchService searchService;
+    
+    @PostConstruct
+    public void replay() {
+        if (!bidJournal.isEnabled()) {
+            return;
+        }
+        int replayed = drain();
+        if (replayed > 0) {
+            log.info("Replayed {} journaled bids into the database", replayed);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${auction.bidding.journal.drain-interval:50}")
+    public void scheduledDrain() {
+        if (bidJournal.isEnabled()) {
+            drain();
+        }
+    }
+    
+    /**
+     * Writes every durable journal record past the checkpoint to the database.
+     *
+     * @return the number of records written
+     */
+    public synchronized int drain() {
+        // Records appended but not yet flushed would otherwise wait for the next drain
+        bidJournal.sync();
+        
+        int drained = 0;
+        List<BidJournal.JournalEntry> entries;
+        
+        while (!(entries = bidJournal.readFrom(bidJournal.getCheckpoint(),
+                biddingConfiguration.getJournal().getDrainBatchSize())).isEmpty()) {
+            List<BidJournal.JournalEntry> batch = entries;
+            Map<String, Long> versions = transactionTemplate.execute(status -> writeBatch(batch));
+            bidJournal.commitCheckpoint(batch.get(batch.size() - 1).next());
+            versions.forEach((auctionId, version) -> {
+                auctionCache.evict(auctionId, version);
+                searchService.updateAuctionIndex(auctionId);
+            });
+            drained += batch.size();
+        }
+        return drained;
+    }
+    
+    private Map<String, Long> writeBatch(List<BidJournal.JournalEntry> entries) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        
+        // Journal order is acceptance order, so the last bid per auction is the leader
+        Map<String, JournaledBid> leaders = new LinkedHashMap<>();
+        entries.stream()
+            .map(BidJournal.JournalEntry::bid)
+            .filter(bid -> bid.getStatus() == Bid.BidStatus.ACCEPTED)
+            .forEach(bid -> leaders.put(bid.getAuctionId(), bid));
+        
+        int[][] inserted = jdbcTemplate.batchUpdate(INSERT_BID_SQL, entries, entries.size(), (ps, entry) -> {
+            JournaledBid bid = entry.bid();
+            boolean leading = leaders.get(bid.getAuctionId()) == bid;
+            ps.setString(1, bid.getId());
+            ps.setString(2, bid.getAuctionId());
+            ps.setString(3, bid.getBidderId());
+            ps.setBigDecimal(4, bid.getAmount());
+            ps.setBigDecimal(5, bid.getMaxAmount());
+            ps.setString(6, bid.getBidType().name());
+            ps.setString(7, leading ? bid.getStatus().name() : Bid.BidStatus.OUTBID.name());
+            ps.setTimestamp(8, Timestamp.valueOf(bid.getBidTime()));
+            ps.setString(9, bid.getIpAddress());
+            ps.setString(10, bid.getUserAgent());
+            ps.setString(11, bid.getDeviceId());
+            ps.setBoolean(12, Boolean.TRUE.equals(bid.getIsProxyBid()));
+            ps.setString(13, bid.getSource().name());
+            ps.setTimestamp(14, now);
+            ps.setTimestamp(15, now);
+        });
+        
+        // Only rows that were really inserted count, so a replayed batch is not counted twice
+        Map<String, Activity> activity = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (inserted[0][i] != 0) {
+                JournaledBid bid = entries.get(i).bid();
+                activity.computeIfAbsent(bid.getAuctionId(), id -> new Activity(id)).record(bid.getBidTime());
+            }
+        }
+        
+        List<JournaledBid> leadingBids = List.copyOf(leaders.values());
+        jdbcTemplate.batchUpdate(PROMOTE_LEADER_SQL, leadingBids, leadingBids.size(), (ps, bid) -> {
+            ps.setString(1, bid.getAuctionId());
+            ps.setBigDecimal(2, bid.getAmount());
+            ps.setString(3, bid.getId());
+            ps.setTimestamp(4, now);
+            ps.setString(5, bid.getAuctionId());
+            ps.setBigDecimal(6, bid.getAmount());
+            ps.setTimestamp(7, now);
+            ps.setString(8, bid.getId());
+        });
+        jdbcTemplate.batchUpdate(DEMOTE_UNPROMOTED_SQL, leadingBids, leadingBids.size(), (ps, bid) -> {
+            ps.setTimestamp(1, now);
+            ps.setString(2, bid.getId());
+            ps.setString(3, bid.getAuctionId());
+        });
+        
+        List<Activity> activities = List.copyOf(activity.values());
+        jdbcTemplate.batchUpdate(UPDATE_ACTIVITY_SQL, activities, activities.size(), (ps, entry) -> {
+            Timestamp lastBidTime = Timestamp.valueOf(entry.lastBidTime);
+            ps.setInt(1, entry.bidCount);
+            ps.setTimestamp(2, lastBidTime);
+            ps.setTimestamp(3, lastBidTime);
+            ps.setString(4, entry.auctionId);
+        });
+        
+        Object[] auctionIds = entries.stream().map(entry -> entry.bid().getAuctionId()).distinct().toArray();
+        Map<String, Long> versions = new HashMap<>();
+        jdbcTemplate.query(SELECT_VERSIONS_SQL,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", auctionIds)),
+            rs -> {
+                versions.put(rs.getString("id"), rs.getLong("version"));
+            });
+        return versions;
+    }
+    
+    private static class Activity {
+        
+        private final String auctionId;
+        private int bidCount;
+        private LocalDateTime lastBidTime;
+        
+        Activity(String auctionId) {
+            this.auctionId = auctionId;
+        }
+        
+        void record(LocalDateTime bidTime) {
+            bidCount++;
+            if (lastBidTime == null || bidTime.isAfter(lastBidTime)) {
+                lastBidTime = bidTime;
+            }
+        }
+    }
+}
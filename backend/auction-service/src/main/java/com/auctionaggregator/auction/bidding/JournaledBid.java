@@ -0,0 +1,48 @@
+package com.auctionaggregator.auction.bidding;
+
+import com.auctionaggregator.auction.entity.Bid;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournaledBid {
+    private String id;
+    private String auctionId;
+    private String bidderId;
+    private BigDecimal amount;
+    private BigDecimal maxAmount;
+    private Bid.BidType bidType;
+    private Bid.BidStatus status;
+    private LocalDateTime bidTime;
+    private String ipAddress;
+    private String userAgent;
+    private String deviceId;
+    private Boolean isProxyBid;
+    private Bid.BidSource source;
+    
+    public static JournaledBid from(Bid bid) {
+        return JournaledBid.builder()
+            .id(bid.getId())
+            .auctionId(bid.getAuction().getId())
+            .bidderId(bid.getBidderId())
+            .amount(bid.getAmount())
+            .maxAmount(bid.getMaxAmount())
+            .bidType(bid.getBidType())
+            .status(bid.getStatus())
+            .bidTime(bid.getBidTime())
+            .ipAddress(bid.getIpAddress())
+            .userAgent(bid.getUserAgent())
+            .deviceId(bid.getDeviceId())
+            .isProxyBid(bid.getIsProxyBid())
+            .source(bid.getSource())
+            .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.auctionaggregator.auction.bidding;
+
+import com.auctionaggregator.auction.config.BiddingConfiguration;
+import com.auctionaggregator.auction.exception.BidException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed pool of locks shared by all auctions.
+ * <p>
+ * An auction always hashes to the same stripe, so mutual exclusion per auction
+ * holds for the lifetime of the process and no lock is ever allocated or
+ * removed on the bid path. Unrelated auctions may share a stripe; the pool is
+ * sized so that this only matters under very high concurrency.
+ */
+@Component
+public class StripedLockPool {
+    
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long acquireTimeout;
+    private final Timer lockWaitTimer;
+    
+    public StripedLockPool(BiddingConfiguration biddingConfiguration, MeterRegistry meterRegistry) {
+        int size = Integer.highestOneBit(Math.max(1, biddingConfiguration.getLockStripes() - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.acquireTimeout = biddingConfiguration.getLockTimeout();
+        this.lockWaitTimer = Timer.builder("auction.bid.lock.wait")
+            .description("Time spent waiting for an auction bid lock")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Runs the action while holding the stripe for the given key.
+     *
+     * @param key the key to serialize on, usually an auction ID
+     * @param action the work to run under the lock
+     * @return the action result
+     * @throws BidException if the lock cannot be acquired within the configured timeout
+     */
+    public <T> T withLock(String key, Supplier<T> action) {
+        ReentrantLock lock = lockFor(key);
+        
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(acquireTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BidException("Interrupted while waiting for auction lock", e);
+        } finally {
+            lockWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        
+        if (!acquired) {
+            throw new BidException("Auction is busy, please retry");
+        }
+        
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    ReentrantLock lockFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+    
+    int size() {
+        return stripes.length;
+    }
+}
@@ -0,0 +1,195 @@
+package com.auctionaggregator.auction.cache;
+
+import com.auctionaggregator.auction.config.AuctionCacheConfiguration;
+import com.auctionaggregator.auction.dto.AuctionDTO;
+import com.auctionaggregator.auction.entity.Auction;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache of {@link AuctionDTO}s: a small in-process map in front of Redis.
+ * <p>
+ * Redis entries carry the entity version they were built from and are only
+ * replaced by an equal or newer version, so a slow reader can never put an
+ * old view back after an update. Updates leave a versioned tombstone in Redis
+ * and broadcast the auction ID so every node drops its local copy. Local
+ * entries also expire after a short TTL, which bounds staleness if a
+ * broadcast is lost.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuctionCache {
+    
+    // Writes ARGV[2] unless the stored entry was built from a newer version than ARGV[1]
+    private static final RedisScript<Long> PUT_IF_NEWER = new DefaultRedisScript<>(
+        "local current = redis.call('GET', KEYS[1]) " +
+        "if current then " +
+        "  local version = cjson.decode(current)['version'] " +
+        "  if version and tonumber(version) > tonumber(ARGV[1]) then return 0 end " +
+        "end " +
+        "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) " +
+        "return 1", Long.class);
+    
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final AuctionCacheConfiguration cacheConfiguration;
+    
+    private final Map<String, LocalEntry> localEntries = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void subscribe() {
+        if (!cacheConfiguration.isEnabled()) {
+            return;
+        }
+        listenerContainer.addMessageListener(
+            (message, pattern) -> localEntries.remove(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(cacheConfiguration.getInvalidationChannel()));
+    }
+    
+    /**
+     * Returns the cached view of an auction, loading and caching it on a miss.
+     *
+     * @param auctionId the ID of the auction
+     * @param loader builds the view from the database; called at most once
+     * @return the cached view, shared between callers and therefore not to be modified
+     */
+    public AuctionDTO get(String auctionId, Supplier<CachedAuction> loader) {
+        if (!cacheConfiguration.isEnabled()) {
+            return loader.get().auction();
+        }
+        
+        long now = System.currentTimeMillis();
+        LocalEntry local = localEntries.get(auctionId);
+        if (local != null && local.expiresAt() > now) {
+            return local.cached().auction();
+        }
+        
+        CachedAuction cached = readRemote(auctionId);
+        if (cached == null || cached.isTombstone()) {
+            cached = loader.get();
+            writeRemote(auctionId, cached);
+        }
+        putLocal(auctionId, cached, now);
+        return cached.auction();
+    }
+    
+    /**
+     * Invalidates an auction on every node once the current transaction commits.
+     * The version is read after commit, when it reflects the committed row.
+     */
+    public void evict(Auction auction) {
+        String auctionId = auction.getId();
+        afterCommit(() -> invalidate(auctionId, auction.getVersion()));
+    }
+    
+    /**
+     * Invalidates an auction changed by a raw SQL update that committed the given version.
+     */
+    public void evict(String auctionId, long version) {
+        afterCommit(() -> invalidate(auctionId, version));
+    }
+    
+    /**
+     * Invalidates an auction after a raw SQL update that leaves the version alone, such as a view count flush.
+     */
+    public void evict(String auctionId) {
+        afterCommit(() -> invalidate(auctionId, null));
+    }
+    
+    private void invalidate(String auctionId, Long version) {
+        localEntries.remove(auctionId);
+        if (!cacheConfiguration.isEnabled()) {
+            return;
+        }
+        
+        try {
+            if (version != null) {
+                // Fence off readers that loaded an older version before the update committed
+                writeRemote(auctionId, new CachedAuction(version, null), cacheConfiguration.getLocalTtl());
+            } else {
+                redisTemplate.delete(cacheConfiguration.getKeyPrefix() + auctionId);
+            }
+            redisTemplate.convertAndSend(cacheConfiguration.getInvalidationChannel(), auctionId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to invalidate cached auction {}", auctionId, e);
+        }
+    }
+    
+    private CachedAuction readRemote(String auctionId) {
+        try {
+            String json = redisTemplate.opsForValue().get(cacheConfiguration.getKeyPrefix() + auctionId);
+            return json != null ? objectMapper.readValue(json, CachedAuction.class) : null;
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to read cached auction {}", auctionId, e);
+            return null;
+        }
+    }
+    
+    private void writeRemote(String auctionId, CachedAuction cached) {
+        writeRemote(auctionId, cached, cacheConfiguration.getRedisTtl());
+    }
+    
+    private void writeRemote(String auctionId, CachedAuction cached, long ttl) {
+        try {
+            redisTemplate.execute(PUT_IF_NEWER, List.of(cacheConfiguration.getKeyPrefix() + auctionId),
+                String.valueOf(cached.version()), objectMapper.writeValueAsString(cached), String.valueOf(ttl));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to cache auction {}", auctionId, e);
+        }
+    }
+    
+    private void putLocal(String auctionId, CachedAuction cached, long now) {
+        if (localEntries.size() >= cacheConfiguration.getLocalMaxEntries()) {
+            evictLocal(now);
+        }
+        localEntries.put(auctionId, new LocalEntry(cached, now + cacheConfiguration.getLocalTtl()));
+    }
+    
+    private void evictLocal(long now) {
+        localEntries.values().removeIf(entry -> entry.expiresAt() <= now);
+        
+        // Still full of live entries: drop an arbitrary tenth rather than track recency on every read
+        int excess = localEntries.size() - cacheConfiguration.getLocalMaxEntries() * 9 / 10;
+        Iterator<String> keys = localEntries.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    private record LocalEntry(CachedAuction cached, long expiresAt) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.auctionaggregator.auction.cache;
+
+import com.auctionaggregator.auction.dto.AuctionDTO;
+
+/**
+ * A cached auction view stamped with the entity version it was built from.
+ * A {@code null} auction is a tombstone left by an invalidation.
+ */
+public record CachedAuction(long version, AuctionDTO auction) {
+    
+    public boolean isTombstone() {
+        return auction == null;
+    }
+}
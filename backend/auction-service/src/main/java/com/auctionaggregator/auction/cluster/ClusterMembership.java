@@ -0,0 +1,25 @@
+package com.auctionaggregator.auction.cluster;
+
+import java.util.List;
+
+/**
+ * The set of live service nodes and the share of work each one owns.
+ * <p>
+ * Work is keyed by strings such as auction IDs or scraper names and assigned
+ * with rendezvous hashing, so when a node joins or leaves only the keys it
+ * gains or loses change owner. Implementations publish a
+ * {@link MembershipChangedEvent} whenever the member list changes.
+ */
+public interface ClusterMembership {
+    
+    String getNodeId();
+    
+    /**
+     * @return the IDs of all live nodes, including this one, in a stable order
+     */
+    List<String> getMembers();
+    
+    default boolean owns(String key) {
+        return getNodeId().equals(RendezvousHashing.owner(key, getMembers()));
+    }
+}
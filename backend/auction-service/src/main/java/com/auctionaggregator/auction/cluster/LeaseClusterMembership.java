@@ -0,0 +1,112 @@
+package com.auctionaggregator.auction.cluster;
+
+import com.auctionaggregator.auction.config.ClusterConfiguration;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Membership backed by leases in the {@code cluster_nodes} table.
+ * <p>
+ * Every node renews its own lease on each heartbeat and reads the set of
+ * unexpired leases. Lease times come from the database clock, so skew between
+ * pods does not matter. A node that stops heartbeating drops out once its
+ * lease expires and the survivors take over its keys.
+ */
+@Component
+@ConditionalOnProperty(prefix = "auction.cluster", name = "enabled", havingValue = "true")
+@Slf4j
+public class LeaseClusterMembership implements ClusterMembership {
+    
+    private static final String RENEW_LEASE_SQL =
+        "INSERT INTO cluster_nodes (node_id, heartbeat_at, expires_at) " +
+        "VALUES (?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP + ? * INTERVAL '1 millisecond') " +
+        "ON CONFLICT (node_id) DO UPDATE SET heartbeat_at = EXCLUDED.heartbeat_at, expires_at = EXCLUDED.expires_at";
+    
+    private static final String LIVE_MEMBERS_SQL =
+        "SELECT node_id FROM cluster_nodes WHERE expires_at > CURRENT_TIMESTAMP ORDER BY node_id";
+    
+    private static final String PURGE_EXPIRED_SQL =
+        "DELETE FROM cluster_nodes WHERE expires_at < CURRENT_TIMESTAMP - INTERVAL '1 hour'";
+    
+    private static final String RELEASE_LEASE_SQL = "DELETE FROM cluster_nodes WHERE node_id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterConfiguration clusterConfiguration;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+    
+    private volatile List<String> members;
+    
+    public LeaseClusterMembership(JdbcTemplate jdbcTemplate, ClusterConfiguration clusterConfiguration,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clusterConfiguration = clusterConfiguration;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = clusterConfiguration.getNodeId() != null ? clusterConfiguration.getNodeId() : defaultNodeId();
+        this.members = List.of(nodeId);
+    }
+    
+    @PostConstruct
+    public void join() {
+        heartbeat();
+        log.info("Node {} joined cluster with members {}", nodeId, members);
+    }
+    
+    @Scheduled(fixedDelayString = "${auction.cluster.heartbeat-interval:5000}")
+    public void heartbeat() {
+        try {
+            jdbcTemplate.update(RENEW_LEASE_SQL, nodeId, clusterConfiguration.getLeaseTtl());
+            jdbcTemplate.update(PURGE_EXPIRED_SQL);
+            List<String> live = jdbcTemplate.queryForList(LIVE_MEMBERS_SQL, String.class);
+            if (!live.equals(members)) {
+                log.info("Cluster membership changed from {} to {}", members, live);
+                members = live;
+                eventPublisher.publishEvent(new MembershipChangedEvent(live));
+            }
+        } catch (RuntimeException e) {
+            // Keep the last known view; the lease outlives a few missed heartbeats
+            log.error("Cluster heartbeat failed for node {}", nodeId, e);
+        }
+    }
+    
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    @Override
+    public List<String> getMembers() {
+        return members;
+    }
+    
+    @PreDestroy
+    public void leave() {
+        try {
+            jdbcTemplate.update(RELEASE_LEASE_SQL, nodeId);
+            log.info("Node {} left cluster", nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Could not release lease for node {}", nodeId, e);
+        }
+    }
+    
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
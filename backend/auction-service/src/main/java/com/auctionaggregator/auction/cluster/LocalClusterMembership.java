@@ -0,0 +1,42 @@
+package com.auctionaggregator.auction.cluster;
+
+import com.auctionaggregator.auction.config.ClusterConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Membership for a single node, which therefore owns everything. Tests can
+ * simulate other nodes with {@link #setMembers}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "auction.cluster", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class LocalClusterMembership implements ClusterMembership {
+    
+    private final String nodeId;
+    private final ApplicationEventPublisher eventPublisher;
+    private volatile List<String> members;
+    
+    public LocalClusterMembership(ClusterConfiguration clusterConfiguration, ApplicationEventPublisher eventPublisher) {
+        this.nodeId = clusterConfiguration.getNodeId() != null ? clusterConfiguration.getNodeId() : "local";
+        this.eventPublisher = eventPublisher;
+        this.members = List.of(nodeId);
+    }
+    
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    @Override
+    public List<String> getMembers() {
+        return members;
+    }
+    
+    public void setMembers(List<String> members) {
+        this.members = members.stream().sorted().toList();
+        eventPublisher.publishEvent(new MembershipChangedEvent(this.members));
+    }
+}
@@ -0,0 +1,6 @@
+package com.auctionaggregator.auction.cluster;
+
+import java.util.List;
+
+public record MembershipChangedEvent(List<String> members) {
+}
@@ -0,0 +1,48 @@
+package com.auctionaggregator.auction.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Highest-random-weight hashing: every key goes to the member with the highest
+ * combined hash, which needs no ring state and moves only the keys of the
+ * member that joined or left.
+ */
+public final class RendezvousHashing {
+    
+    private RendezvousHashing() {
+    }
+    
+    public static String owner(String key, List<String> members) {
+        long keyHash = hash(key);
+        String owner = null;
+        long best = 0;
+        for (String member : members) {
+            long weight = mix(hash(member) ^ keyHash);
+            if (owner == null || Long.compareUnsigned(weight, best) > 0) {
+                owner = member;
+                best = weight;
+            }
+        }
+        return owner;
+    }
+    
+    private static long hash(String value) {
+        // 64-bit FNV-1a; String.hashCode is too narrow to spread similar node names
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,18 @@
+package com.auctionaggregator.auction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auction.cache")
+@Data
+public class AuctionCacheConfiguration {
+    
+    private boolean enabled = true;
+    private int localMaxEntries = 10000;
+    private long localTtl = 2000; // milliseconds, bounds staleness if an invalidation is missed
+    private long redisTtl = 300000; // 5 minutes
+    private String keyPrefix = "auction:dto:";
+    private String invalidationChannel = "auction:dto:invalidations";
+}
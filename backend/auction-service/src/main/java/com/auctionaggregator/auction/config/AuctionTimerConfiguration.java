@@ -0,0 +1,18 @@
+package com.auctionaggregator.auction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auction.timer")
+@Data
+public class AuctionTimerConfiguration {
+    
+    private long tickMs = 1; // Precision of the innermost wheel
+    private int wheelSize = 64;
+    private long endingSoonMinutes = 30;
+    private int workerThreads = 4;
+    private long retryDelay = 1000; // first retry of a failed transition, doubled on every further failure
+    private long retryMaxDelay = 60000; // 1 minute
+}
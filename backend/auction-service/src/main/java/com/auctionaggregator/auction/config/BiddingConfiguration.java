@@ -0,0 +1,40 @@
+package com.auctionaggregator.auction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auction.bidding")
+@Data
+public class BiddingConfiguration {
+    
+    private BidExecutionMode mode = BidExecutionMode.LOCKED;
+    private int sequencerShards = 8;
+    private long sequencerTimeout = 5000; // 5 seconds
+    private int lockStripes = 256;
+    private long lockTimeout = 5000; // 5 seconds
+    private int optimisticMaxAttempts = 5;
+    private long optimisticBackoff = 10; // milliseconds, doubled per attempt
+    private long optimisticMaxBackoff = 200; // milliseconds
+    private int maxHistoryPageSize = 200; // bids per page of bid history
+    
+    private Journal journal = new Journal();
+    
+    @Data
+    public static class Journal {
+        private boolean enabled = false; // Only used in SEQUENCED mode
+        private String directory = "data/bid-journal";
+        private int segmentSize = 64 * 1024 * 1024; // 64 MB
+        private long flushInterval = 5; // milliseconds between fsyncs
+        private long ackTimeout = 2000; // 2 seconds
+        private int drainBatchSize = 500;
+        private long drainInterval = 50; // milliseconds
+    }
+    
+    public enum BidExecutionMode {
+        LOCKED,     // JVM-local lock around a database transaction
+        SEQUENCED,  // Single-writer in-memory auction book per shard
+        OPTIMISTIC  // Conditional version-checked update, safe across replicas
+    }
+}
@@ -0,0 +1,16 @@
+package com.auctionaggregator.auction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auction.cluster")
+@Data
+public class ClusterConfiguration {
+    
+    private boolean enabled = false; // Single node unless enabled
+    private String nodeId; // Defaults to the host name plus a random suffix
+    private long leaseTtl = 15000; // 15 seconds
+    private long heartbeatInterval = 5000; // 5 seconds
+}
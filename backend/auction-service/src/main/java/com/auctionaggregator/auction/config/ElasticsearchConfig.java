@@ -0,0 +1,19 @@
+package com.auctionaggregator.auction.config;
+
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ElasticsearchConfig {
+    
+    /**
+     * Serializes index documents with the application's ObjectMapper so Java time types are written as ISO dates.
+     */
+    @Bean
+    public JsonpMapper jsonpMapper(ObjectMapper objectMapper) {
+        return new JacksonJsonpMapper(objectMapper.copy());
+    }
+}
@@ -0,0 +1,56 @@
+package com.auctionaggregator.auction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auction.search")
+@Data
+public class SearchConfiguration {
+    
+    private int maxResults = 1000; // upper bound on ranked full-text or distance matches per query
+    private int defaultPageSize = 20;
+    private int maxPageSize = 100; // upper bound on the limit of one cursor page
+    
+    private Indexing indexing = new Indexing();
+    private Catalog catalog = new Catalog();
+    private Embedded embedded = new Embedded();
+    private Facets facets = new Facets();
+    private Geo geo = new Geo();
+    
+    @Data
+    public static class Indexing {
+        private boolean enabled = true;
+        private String indexName = "auctions";
+        private int bulkSize = 500; // auctions per _bulk request
+        private long flushInterval = 1000; // milliseconds
+        private long initialBackoff = 500; // milliseconds, doubled per failed flush
+        private long maxBackoff = 30000; // 30 seconds
+    }
+    
+    @Data
+    public static class Catalog {
+        private long refreshInterval = 500; // milliseconds between applying local changes to in-memory views
+        private long resyncInterval = 60000; // only used with more than one node
+        private int loadBatchSize = 500;
+    }
+    
+    @Data
+    public static class Embedded {
+        private boolean enabled = false; // in-process full-text index instead of Postgres ranking
+        private double k1 = 1.2; // BM25 term frequency saturation
+        private double b = 0.75; // BM25 length normalization
+    }
+    
+    @Data
+    public static class Facets {
+        private int maxValues = 50; // most frequent values returned per facet
+    }
+    
+    @Data
+    public static class Geo {
+        private double defaultRadiusKm = 25; // when a center is given without a radius
+        private double maxRadiusKm = 500;
+    }
+}
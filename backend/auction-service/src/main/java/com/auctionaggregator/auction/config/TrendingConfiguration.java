@@ -0,0 +1,17 @@
+package com.auctionaggregator.auction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auction.trending")
+@Data
+public class TrendingConfiguration {
+    
+    private long halfLife = 3600000; // 1 hour
+    private double viewWeight = 1.0;
+    private double bidWeight = 10.0;
+    private double watcherWeight = 5.0;
+    private long rebaseInterval = 86400000; // 1 day, keeps forward-decayed scores far from overflow
+}
@@ -0,0 +1,26 @@
+package com.auctionaggregator.auction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auction.websocket")
+@Data
+public class WebSocketBroadcastConfiguration {
+    
+    private int maxSubscriptionsPerSession = 100; // auctions one connection may watch
+    private int sendQueueCapacity = 256; // outbound messages buffered per session
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+    private int senderThreads = 4;
+    private int sendBatchSize = 32; // messages sent to one session before yielding the sender thread
+    private int publishQueueCapacity = 10000; // updates buffered on this node before they are published
+    private int publishBatchSize = 256; // updates published on the bus in one round trip
+    private long publishInterval = 2; // milliseconds the oldest buffered update waits for a fuller batch
+    private String channelPrefix = "auction:ws:"; // Redis pub/sub channel per auction when clustered
+    
+    public enum OverflowPolicy {
+        DROP_OLDEST, // Discard the oldest queued update to make room
+        DISCONNECT   // Close the session of a client that cannot keep up
+    }
+}
@@ -1,6 +1,9 @@
 package com.auctionaggregator.auction.controller;
 
 import com.auctionaggregator.auction.dto.*;
+import com.auctionaggregator.auction.pagination.AuctionSort;
+import com.auctionaggregator.auction.search.Facet;
+import com.auctionaggregator.auction.search.FacetCount;
 import com.auctionaggregator.auction.service.AuctionService;
 import com.auctionaggregator.auction.service.BiddingService;
 import com.auctionaggregator.common.dto.ApiResponse;
@@ -20,6 +23,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/auctions")
@@ -69,6 +73,28 @@ public class AuctionController {
         return ResponseEntity.ok(ApiResponse.success(auctions));
     }
     
+    @GetMapping("/scroll")
+    @Operation(summary = "Search auctions with cursor pagination")
+    public ResponseEntity<ApiResponse<CursorPage<AuctionDTO>>> scrollAuctions(
+            @Parameter(description = "Search criteria")
+            AuctionSearchDTO searchDTO,
+            @Parameter(description = "Order; ranked searches default to relevance or distance, others to newest first")
+            @RequestParam(required = false) AuctionSort sort,
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor) {
+        CursorPage<AuctionDTO> auctions = auctionService.scrollAuctions(searchDTO, sort, limit, cursor);
+        return ResponseEntity.ok(ApiResponse.success(auctions));
+    }
+    
+    @GetMapping("/facets")
+    @Operation(summary = "Count matching auctions per source, category, status and tag")
+    public ResponseEntity<ApiResponse<Map<Facet, List<FacetCount>>>> getFacets(
+            @Parameter(description = "Search criteria")
+            AuctionSearchDTO searchDTO) {
+        Map<Facet, List<FacetCount>> facets = auctionService.getFacets(searchDTO);
+        return ResponseEntity.ok(ApiResponse.success(facets));
+    }
+    
     @PostMapping("/{auctionId}/activate")
     @PreAuthorize("hasRole('SELLER')")
     @Operation(summary = "Activate an auction")
@@ -109,10 +135,11 @@ public class AuctionController {
     
     @GetMapping("/{auctionId}/bids")
     @Operation(summary = "Get bids for an auction")
-    public ResponseEntity<ApiResponse<List<BidDTO>>> getAuctionBids(
+    public ResponseEntity<ApiResponse<CursorPage<BidDTO>>> getAuctionBids(
             @PathVariable String auctionId,
-            @RequestParam(defaultValue = "50") int limit) {
-        List<BidDTO> bids = biddingService.getAuctionBids(auctionId, limit);
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor) {
+        CursorPage<BidDTO> bids = biddingService.getAuctionBids(auctionId, limit, cursor);
         return ResponseEntity.ok(ApiResponse.success(bids));
     }
     
@@ -141,10 +168,12 @@ public class AuctionController {
     @GetMapping("/my-bids")
     @PreAuthorize("hasRole('BIDDER')")
     @Operation(summary = "Get current user's bids")
-    public ResponseEntity<ApiResponse<List<BidDTO>>> getMyBids(
+    public ResponseEntity<ApiResponse<CursorPage<BidDTO>>> getMyBids(
             @RequestParam(required = false) Bid.BidStatus status,
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
             @AuthenticationPrincipal String userId) {
-        List<BidDTO> bids = biddingService.getUserBids(userId, status);
+        CursorPage<BidDTO> bids = biddingService.getUserBids(userId, status, limit, cursor);
         return ResponseEntity.ok(ApiResponse.success(bids));
     }
     
@@ -158,9 +187,10 @@ public class AuctionController {
     
     @GetMapping("/ending-soon")
     @Operation(summary = "Get auctions ending soon")
-    public ResponseEntity<ApiResponse<List<AuctionDTO>>> getEndingSoonAuctions(
-            @RequestParam(defaultValue = "10") int limit) {
-        List<AuctionDTO> auctions = auctionService.getEndingSoonAuctions(limit);
+    public ResponseEntity<ApiResponse<CursorPage<AuctionDTO>>> getEndingSoonAuctions(
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor) {
+        CursorPage<AuctionDTO> auctions = auctionService.getEndingSoonAuctions(limit, cursor);
         return ResponseEntity.ok(ApiResponse.success(auctions));
     }
 }
\ No newline at end of file
@@ -21,4 +21,13 @@ public class AuctionSearchDTO {
     private String location;
     private String source;
     private String[] tags;
+    
+    // Proximity: a center with a radius, or a bounding box
+    private Double latitude;
+    private Double longitude;
+    private Double radiusKm;
+    private Double minLatitude;
+    private Double maxLatitude;
+    private Double minLongitude;
+    private Double maxLongitude;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.auctionaggregator.auction.dto;
+
+import com.auctionaggregator.auction.entity.Auction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuctionStatusUpdate {
+    private Auction.AuctionStatus status;
+    private BigDecimal currentPrice;
+    private LocalDateTime endTime;
+    private String reason; // Set for cancellations
+}
@@ -0,0 +1,23 @@
+package com.auctionaggregator.auction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Client message changing the auctions a WebSocket session receives updates for.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionRequest {
+    private Action type;
+    private List<String> auctionIds;
+    
+    public enum Action {
+        SUBSCRIBE,
+        UNSUBSCRIBE
+    }
+}
@@ -83,6 +83,14 @@ public class Auction extends BaseEntity {
     @Column(nullable = false)
     private Integer watcherCount = 0;
     
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer bidCount = 0;
+    
+    private LocalDateTime lastBidTime;
+    
+    private String leadingBidId;
+    
     private String winnerId;
     
     private BigDecimal winningBid;
@@ -40,6 +40,10 @@ public class AuctionDetails extends BaseEntity {
     @Column(precision = 11, scale = 8)
     private BigDecimal longitude;
     
+    // Maintained by a database trigger from the coordinates
+    @Column(length = 12, insertable = false, updatable = false)
+    private String geohash;
+    
     @Column(nullable = false)
     private Boolean shippingAvailable = true;
     
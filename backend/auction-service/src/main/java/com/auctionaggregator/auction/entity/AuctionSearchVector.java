@@ -0,0 +1,29 @@
+package com.auctionaggregator.auction.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Read-only view of the full-text vector that the triggers of
+ * {@code V6__add_auction_full_text_search.sql} keep on each auction row. It is
+ * mapped apart from {@link Auction} so that loading an auction never reads the
+ * vector; queries join it by id.
+ */
+@Entity
+@Immutable
+@Table(name = "auctions")
+@Getter
+@NoArgsConstructor
+public class AuctionSearchVector {
+    
+    @Id
+    private String id;
+    
+    @Column(name = "search_vector", columnDefinition = "tsvector", insertable = false, updatable = false)
+    private String searchVector;
+}
@@ -13,7 +13,6 @@ import java.util.stream.Collectors;
 public interface AuctionMapper {
     
     @Mapping(target = "categoryName", source = "category.name")
-    @Mapping(target = "bidCount", expression = "java(auction.getBids() != null ? auction.getBids().size() : 0)")
     @Mapping(target = "imageUrls", expression = "java(mapImageUrls(auction))")
     AuctionDTO toDTO(Auction auction);
     
@@ -0,0 +1,73 @@
+package com.auctionaggregator.auction.pagination;
+
+import com.auctionaggregator.auction.entity.Auction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Orders supported by keyset pagination of auction searches. Every order is
+ * made total by the auction id, and its cursor holds the sort value and id of
+ * the last auction returned.
+ */
+public enum AuctionSort {
+    
+    ENDING_SOONEST("endTime", true, false, Auction::getEndTime, LocalDateTime::parse),
+    NEWEST("createdAt", false, false, Auction::getCreatedAt, LocalDateTime::parse),
+    PRICE_LOW_TO_HIGH("currentPrice", true, true, Auction::getCurrentPrice, BigDecimal::new),
+    PRICE_HIGH_TO_LOW("currentPrice", false, true, Auction::getCurrentPrice, BigDecimal::new);
+    
+    private final String attribute;
+    private final boolean ascending;
+    private final boolean nullable;
+    private final Function<Auction, Comparable<?>> value;
+    private final Function<String, Comparable<?>> parser;
+    
+    AuctionSort(String attribute, boolean ascending, boolean nullable,
+                Function<Auction, Comparable<?>> value, Function<String, Comparable<?>> parser) {
+        this.attribute = attribute;
+        this.ascending = ascending;
+        this.nullable = nullable;
+        this.value = value;
+        this.parser = parser;
+    }
+    
+    public String getAttribute() {
+        return attribute;
+    }
+    
+    public boolean isAscending() {
+        return ascending;
+    }
+    
+    /**
+     * Whether the sort value may be null; nulls sort after every value, as in Postgres.
+     */
+    public boolean isNullable() {
+        return nullable;
+    }
+    
+    public String cursorAfter(Auction auction) {
+        Comparable<?> sortValue = value.apply(auction);
+        return CursorCodec.encode(sortValue == null ? "" : sortValue.toString(), auction.getId());
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public Position decode(String cursor) {
+        String[] values = CursorCodec.decode(cursor, 2);
+        try {
+            return new Position(values[0].isEmpty() ? null : parser.apply(values[0]), values[1]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+    
+    /**
+     * The last auction of a page; the next page starts right after it.
+     */
+    public record Position(Comparable<?> value, String auctionId) {
+    }
+}
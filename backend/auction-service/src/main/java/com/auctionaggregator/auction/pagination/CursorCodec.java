@@ -0,0 +1,36 @@
+package com.auctionaggregator.auction.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset pagination positions as opaque, URL-safe cursors.
+ */
+public final class CursorCodec {
+    
+    private static final String SEPARATOR = "\n";
+    
+    private CursorCodec() {
+    }
+    
+    public static String encode(String... values) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(String.join(SEPARATOR, values).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed or does not have the expected number of values
+     */
+    public static String[] decode(String cursor, int expectedValues) {
+        String[] values;
+        try {
+            values = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (values.length != expectedValues) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return values;
+    }
+}
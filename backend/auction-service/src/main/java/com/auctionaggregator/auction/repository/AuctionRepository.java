@@ -1,17 +1,41 @@
 package com.auctionaggregator.auction.repository;
 
 import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.timer.AuctionDeadline;
+import com.auctionaggregator.auction.trending.AuctionActivity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface AuctionRepository extends JpaRepository<Auction, String>, JpaSpecificationExecutor<Auction> {
+public interface AuctionRepository extends JpaRepository<Auction, String>, JpaSpecificationExecutor<Auction>,
+        AuctionRepositoryCustom {
+    
+    /**
+     * Loads a search page with its category and details joined; the details
+     * would otherwise be selected one auction at a time. Images and tags are
+     * left to batch fetching, so a page maps to DTOs in a constant number of queries.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"category", "details"})
+    Page<Auction> findAll(Specification<Auction> spec, Pageable pageable);
+    
+    @Override
+    @EntityGraph(attributePaths = {"category", "details"})
+    List<Auction> findAllById(Iterable<String> ids);
     
     List<Auction> findByStatus(Auction.AuctionStatus status);
     
@@ -26,8 +50,13 @@ public interface AuctionRepository extends JpaRepository<Auction, String>, JpaSp
         LocalDateTime time
     );
     
-    @Query("SELECT a FROM Auction a WHERE a.status = :status ORDER BY a.viewCount DESC")
-    List<Auction> findTrendingAuctions(@Param("status") Auction.AuctionStatus status);
+    @Query("SELECT new com.auctionaggregator.auction.timer.AuctionDeadline(a.id, a.status, a.endTime) " +
+           "FROM Auction a WHERE a.status IN :statuses")
+    List<AuctionDeadline> findDeadlinesByStatusIn(@Param("statuses") List<Auction.AuctionStatus> statuses);
+    
+    @Query("SELECT new com.auctionaggregator.auction.trending.AuctionActivity(" +
+           "a.id, a.viewCount, a.bidCount, a.watcherCount) FROM Auction a WHERE a.status IN :statuses")
+    List<AuctionActivity> findActivityByStatusIn(@Param("statuses") List<Auction.AuctionStatus> statuses);
     
     @Query("SELECT a FROM Auction a WHERE a.sellerId = :sellerId ORDER BY a.createdAt DESC")
     List<Auction> findBySellerId(@Param("sellerId") String sellerId);
@@ -35,5 +64,26 @@ public interface AuctionRepository extends JpaRepository<Auction, String>, JpaSp
     @Query("SELECT COUNT(a) FROM Auction a WHERE a.status = :status")
     long countByStatus(@Param("status") Auction.AuctionStatus status);
     
+    @Query("SELECT a.id FROM Auction a")
+    List<String> findAllIds();
+    
+    @Query("SELECT a.id FROM Auction a WHERE a.updatedAt > :since")
+    List<String> findIdsUpdatedSince(@Param("since") LocalDateTime since);
+    
+    @EntityGraph(attributePaths = {"category", "details", "tags"})
+    @Query("SELECT a FROM Auction a WHERE a.id IN :ids")
+    List<Auction> findForIndexing(@Param("ids") Collection<String> ids);
+    
     Optional<Auction> findBySourceAndExternalId(String source, String externalId);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Auction a SET a.currentPrice = :price, a.version = a.version + 1, a.updatedAt = :now " +
+           "WHERE a.id = :auctionId AND a.version = :version " +
+           "AND (a.currentPrice IS NULL OR a.currentPrice < :price)")
+    int compareAndSetCurrentPrice(
+        @Param("auctionId") String auctionId,
+        @Param("version") Long version,
+        @Param("price") BigDecimal price,
+        @Param("now") LocalDateTime now
+    );
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.auctionaggregator.auction.repository;
+
+import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.pagination.AuctionSort;
+import com.auctionaggregator.auction.search.AuctionLocation;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface AuctionRepositoryCustom {
+    
+    /**
+     * Returns only the ids of the auctions matching the specification, without loading the entities.
+     */
+    List<String> findIds(Specification<Auction> spec);
+    
+    /**
+     * Full-text matches for a web-search style query among the auctions
+     * matching the specification, most relevant first. The specification is
+     * applied before the limit, so filters never empty a truncated ranking.
+     */
+    List<String> findIdsMatchingText(String text, Specification<Auction> spec, int limit);
+    
+    /**
+     * Returns the coordinates of the located auctions matching the specification.
+     */
+    List<AuctionLocation> findLocations(Specification<Auction> spec);
+    
+    /**
+     * Keyset pagination: the auctions matching the specification that follow
+     * {@code after} in the given order, with category and details joined.
+     *
+     * @param after the last auction of the previous page, or {@code null} for the first page
+     */
+    List<Auction> findSlice(Specification<Auction> spec, AuctionSort sort, AuctionSort.Position after, int limit);
+}
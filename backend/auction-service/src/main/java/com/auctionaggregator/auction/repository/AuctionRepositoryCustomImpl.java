@@ -0,0 +1,156 @@
+package com.auctionaggregator.auction.repository;
+
+import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.entity.AuctionDetails;
+import com.auctionaggregator.auction.entity.AuctionSearchVector;
+import com.auctionaggregator.auction.pagination.AuctionSort;
+import com.auctionaggregator.auction.search.AuctionLocation;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AuctionRepositoryCustomImpl implements AuctionRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<String> findIds(Specification<Auction> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = cb.createQuery(String.class);
+        Root<Auction> root = query.from(Auction.class);
+        query.select(root.get("id"));
+        
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+    
+    @Override
+    public List<String> findIdsMatchingText(String text, Specification<Auction> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = cb.createQuery(String.class);
+        Root<Auction> root = query.from(Auction.class);
+        Root<AuctionSearchVector> vector = query.from(AuctionSearchVector.class);
+        Path<String> searchVector = vector.get("searchVector");
+        Expression<String> terms = cb.literal(text);
+        
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(vector.get("id"), root.get("id")));
+        predicates.add(cb.isTrue(cb.function(FullTextFunctions.MATCHES, Boolean.class, searchVector, terms)));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            predicates.add(predicate);
+        }
+        query.select(root.get("id"))
+            .where(predicates.toArray(Predicate[]::new))
+            .orderBy(cb.desc(cb.function(FullTextFunctions.RANK, Float.class, searchVector, terms)),
+                cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+    
+    @Override
+    public List<AuctionLocation> findLocations(Specification<Auction> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AuctionLocation> query = cb.createQuery(AuctionLocation.class);
+        Root<Auction> root = query.from(Auction.class);
+        Join<Auction, AuctionDetails> details = root.join("details");
+        query.select(cb.construct(AuctionLocation.class,
+            root.get("id"), details.get("latitude"), details.get("longitude")));
+        
+        Predicate located = cb.and(cb.isNotNull(details.get("latitude")), cb.isNotNull(details.get("longitude")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        query.where(predicate != null ? cb.and(located, predicate) : located);
+        return entityManager.createQuery(query).getResultList();
+    }
+    
+    @Override
+    public List<Auction> findSlice(Specification<Auction> spec, AuctionSort sort, AuctionSort.Position after,
+                                   int limit) {
+        List<Auction> slice = querySlice(spec, sort, limit,
+            (cb, key, id) -> after != null ? after(cb, sort, key, id, after) : null);
+        if (after == null || slice.size() >= limit || !sort.isNullable()
+                || sort.isAscending() != (after.value() != null)) {
+            return slice;
+        }
+        
+        // The page ran off the end of its range: nulls come after the values when ascending, before them when not
+        List<Auction> rest = querySlice(spec, sort, limit - slice.size(),
+            (cb, key, id) -> sort.isAscending() ? cb.isNull(key) : cb.isNotNull(key));
+        List<Auction> combined = new ArrayList<>(slice);
+        combined.addAll(rest);
+        return combined;
+    }
+    
+    private List<Auction> querySlice(Specification<Auction> spec, AuctionSort sort, int limit,
+                                     PositionPredicate position) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Auction> query = cb.createQuery(Auction.class);
+        Root<Auction> root = query.from(Auction.class);
+        Path<Comparable<Object>> key = root.get(sort.getAttribute());
+        Path<String> id = root.get("id");
+        
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            predicates.add(predicate);
+        }
+        Predicate range = position.toPredicate(cb, key, id);
+        if (range != null) {
+            predicates.add(range);
+        }
+        query.select(root)
+            .where(predicates.toArray(Predicate[]::new))
+            .orderBy(sort.isAscending() ? cb.asc(key) : cb.desc(key), sort.isAscending() ? cb.asc(id) : cb.desc(id));
+        
+        EntityGraph<Auction> graph = entityManager.createEntityGraph(Auction.class);
+        graph.addAttributeNodes("category", "details");
+        return entityManager.createQuery(query)
+            .setHint("jakarta.persistence.fetchgraph", graph)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+    
+    /**
+     * Rows strictly after the position in {@code (key, id)} order that share its
+     * null-ness; {@link #findSlice} reads the rows on the other side of the nulls
+     * separately. The redundant bound on the key keeps every predicate a single
+     * range of the {@code (key, id)} index, which an {@code OR} alone is not.
+     */
+    @SuppressWarnings("unchecked")
+    private Predicate after(CriteriaBuilder cb, AuctionSort sort, Path<Comparable<Object>> key, Path<String> id,
+                            AuctionSort.Position after) {
+        boolean ascending = sort.isAscending();
+        Predicate idAfter = ascending ? cb.greaterThan(id, after.auctionId()) : cb.lessThan(id, after.auctionId());
+        if (after.value() == null) {
+            return cb.and(cb.isNull(key), idAfter);
+        }
+        
+        Comparable<Object> value = (Comparable<Object>) after.value();
+        return cb.and(
+            ascending ? cb.greaterThanOrEqualTo(key, value) : cb.lessThanOrEqualTo(key, value),
+            cb.or(
+                ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value),
+                cb.and(cb.equal(key, value), idAfter)));
+    }
+    
+    @FunctionalInterface
+    private interface PositionPredicate {
+        Predicate toPredicate(CriteriaBuilder cb, Path<Comparable<Object>> key, Path<String> id);
+    }
+}
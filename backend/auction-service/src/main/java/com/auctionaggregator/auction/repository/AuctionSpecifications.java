@@ -0,0 +1,193 @@
+package com.auctionaggregator.auction.repository;
+
+import com.auctionaggregator.auction.dto.AuctionSearchDTO;
+import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.entity.AuctionDetails;
+import com.auctionaggregator.auction.entity.AuctionSearchVector;
+import com.auctionaggregator.auction.search.GeoBox;
+import com.auctionaggregator.auction.search.Geohash;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Search filters for auctions. Each predicate is written to match an index
+ * from {@code V5__add_auction_search_indexes.sql}: location filters compare
+ * {@code lower(column)} so the expression indexes apply, area filters scan
+ * geohash ranges of {@code V7__add_auction_geohash.sql}, and
+ * filters on child tables are {@code IN} subqueries so they never multiply
+ * the result rows.
+ */
+public final class AuctionSpecifications {
+    
+    private AuctionSpecifications() {
+    }
+    
+    /**
+     * Builds the structured filters of a search. The free-text query is not part
+     * of it; it is ranked under these filters by
+     * {@link AuctionRepositoryCustom#findIdsMatchingText}.
+     */
+    public static Specification<Auction> fromSearch(AuctionSearchDTO search) {
+        return Specification.where(inCategory(search.getCategoryId()))
+            .and(hasStatus(search.getStatus()))
+            .and(priceAtLeast(search.getMinPrice()))
+            .and(priceAtMost(search.getMaxPrice()))
+            .and(locatedIn(search.getLocation()))
+            .and(fromSource(search.getSource()))
+            .and(taggedWithAll(search.getTags()));
+    }
+    
+    public static Specification<Auction> idIn(Collection<String> ids) {
+        return (root, criteria, cb) -> root.get("id").in(ids);
+    }
+    
+    /**
+     * Matches auctions whose full-text vector matches the web-search style
+     * query, without ranking them; ranked matches come from
+     * {@link AuctionRepositoryCustom#findIdsMatchingText}.
+     */
+    public static Specification<Auction> matchingText(String query) {
+        if (isBlank(query)) {
+            return null;
+        }
+        String text = query.trim();
+        return (root, criteria, cb) -> {
+            Subquery<String> matching = criteria.subquery(String.class);
+            Root<AuctionSearchVector> vector = matching.from(AuctionSearchVector.class);
+            matching.select(vector.get("id"))
+                .where(cb.isTrue(cb.function(FullTextFunctions.MATCHES, Boolean.class,
+                    vector.get("searchVector"), cb.literal(text))));
+            return root.get("id").in(matching);
+        };
+    }
+    
+    public static Specification<Auction> inCategory(String categoryId) {
+        if (isBlank(categoryId)) {
+            return null;
+        }
+        return (root, criteria, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+    
+    public static Specification<Auction> hasStatus(Auction.AuctionStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return (root, criteria, cb) -> cb.equal(root.get("status"), status);
+    }
+    
+    public static Specification<Auction> priceAtLeast(BigDecimal minPrice) {
+        if (minPrice == null) {
+            return null;
+        }
+        return (root, criteria, cb) -> cb.greaterThanOrEqualTo(root.get("currentPrice"), minPrice);
+    }
+    
+    public static Specification<Auction> priceAtMost(BigDecimal maxPrice) {
+        if (maxPrice == null) {
+            return null;
+        }
+        return (root, criteria, cb) -> cb.lessThanOrEqualTo(root.get("currentPrice"), maxPrice);
+    }
+    
+    /**
+     * Matches the city, state or country of the auction, ignoring case.
+     */
+    public static Specification<Auction> locatedIn(String location) {
+        if (isBlank(location)) {
+            return null;
+        }
+        String value = location.trim().toLowerCase(Locale.ROOT);
+        return (root, criteria, cb) -> {
+            Subquery<String> located = criteria.subquery(String.class);
+            Root<AuctionDetails> details = located.from(AuctionDetails.class);
+            located.select(details.get("auction").get("id"))
+                .where(cb.or(
+                    cb.equal(cb.lower(details.get("locationCity")), value),
+                    cb.equal(cb.lower(details.get("locationState")), value),
+                    cb.equal(cb.lower(details.get("locationCountry")), value)));
+            return root.get("id").in(located);
+        };
+    }
+    
+    /**
+     * Matches auctions whose coordinates lie inside the box. The geohash cells
+     * covering the box select the candidates through the index; the coordinate
+     * bounds then drop the parts of those cells outside the box.
+     */
+    public static Specification<Auction> withinArea(GeoBox box) {
+        if (box == null) {
+            return null;
+        }
+        List<Geohash.Range> cells = Geohash.cover(box);
+        return (root, criteria, cb) -> {
+            Subquery<String> located = criteria.subquery(String.class);
+            Root<AuctionDetails> details = located.from(AuctionDetails.class);
+            Path<String> geohash = details.get("geohash");
+            Path<BigDecimal> latitude = details.get("latitude");
+            Path<BigDecimal> longitude = details.get("longitude");
+            
+            Predicate inCells = cb.or(cells.stream()
+                .map(cell -> cb.and(
+                    cb.greaterThanOrEqualTo(geohash, cell.from()),
+                    cb.lessThan(geohash, cell.to())))
+                .toArray(Predicate[]::new));
+            Predicate inLongitude = box.crossesAntimeridian()
+                ? cb.or(cb.greaterThanOrEqualTo(longitude, BigDecimal.valueOf(box.west())),
+                    cb.lessThanOrEqualTo(longitude, BigDecimal.valueOf(box.east())))
+                : cb.between(longitude, BigDecimal.valueOf(box.west()), BigDecimal.valueOf(box.east()));
+            
+            located.select(details.get("auction").get("id"))
+                .where(inCells,
+                    cb.between(latitude, BigDecimal.valueOf(box.south()), BigDecimal.valueOf(box.north())),
+                    inLongitude);
+            return root.get("id").in(located);
+        };
+    }
+    
+    public static Specification<Auction> fromSource(String source) {
+        if (isBlank(source)) {
+            return null;
+        }
+        return (root, criteria, cb) -> cb.equal(root.get("source"), source);
+    }
+    
+    /**
+     * Matches auctions carrying every one of the given tags.
+     */
+    public static Specification<Auction> taggedWithAll(String[] tags) {
+        List<String> wanted = tags == null ? List.of() : Arrays.stream(tags)
+            .filter(Objects::nonNull)
+            .map(String::trim)
+            .filter(tag -> !tag.isEmpty())
+            .distinct()
+            .toList();
+        if (wanted.isEmpty()) {
+            return null;
+        }
+        return (root, criteria, cb) -> {
+            Subquery<String> tagged = criteria.subquery(String.class);
+            Root<Auction> auction = tagged.from(Auction.class);
+            Join<Auction, String> tag = auction.join("tags");
+            tagged.select(auction.get("id"))
+                .where(tag.in(wanted))
+                .groupBy(auction.get("id"))
+                .having(cb.equal(cb.countDistinct(tag), (long) wanted.size()));
+            return root.get("id").in(tagged);
+        };
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -1,11 +1,13 @@
 package com.auctionaggregator.auction.repository;
 
 import com.auctionaggregator.auction.entity.Bid;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,15 +16,47 @@ public interface BidRepository extends JpaRepository<Bid, String> {
     
     List<Bid> findByAuctionIdOrderByBidTimeDesc(String auctionId);
     
-    @Query("SELECT b FROM Bid b WHERE b.auction.id = :auctionId ORDER BY b.bidTime DESC LIMIT :limit")
-    List<Bid> findTopByAuctionIdOrderByBidTimeDesc(@Param("auctionId") String auctionId, @Param("limit") int limit);
+    // Bid history is paged by keyset on (bidTime, id), newest first, so every page is an index range scan.
+    // The redundant bidTime bound is what Postgres turns into the scan's start; the OR alone is only a filter.
+    @Query("SELECT b FROM Bid b WHERE b.auction.id = :auctionId ORDER BY b.bidTime DESC, b.id DESC")
+    List<Bid> findLatestByAuctionId(@Param("auctionId") String auctionId, Limit limit);
     
-    List<Bid> findByBidderId(String bidderId);
+    @Query("SELECT b FROM Bid b WHERE b.auction.id = :auctionId " +
+           "AND b.bidTime <= :bidTime AND (b.bidTime < :bidTime OR (b.bidTime = :bidTime AND b.id < :bidId)) " +
+           "ORDER BY b.bidTime DESC, b.id DESC")
+    List<Bid> findLatestByAuctionIdBefore(
+        @Param("auctionId") String auctionId,
+        @Param("bidTime") LocalDateTime bidTime,
+        @Param("bidId") String bidId,
+        Limit limit
+    );
     
-    List<Bid> findByBidderIdAndStatus(String bidderId, Bid.BidStatus status);
+    @Query("SELECT b FROM Bid b WHERE b.bidderId = :bidderId AND (:status IS NULL OR b.status = :status) " +
+           "ORDER BY b.bidTime DESC, b.id DESC")
+    List<Bid> findLatestByBidderId(
+        @Param("bidderId") String bidderId,
+        @Param("status") Bid.BidStatus status,
+        Limit limit
+    );
+    
+    @Query("SELECT b FROM Bid b WHERE b.bidderId = :bidderId AND (:status IS NULL OR b.status = :status) " +
+           "AND b.bidTime <= :bidTime AND (b.bidTime < :bidTime OR (b.bidTime = :bidTime AND b.id < :bidId)) " +
+           "ORDER BY b.bidTime DESC, b.id DESC")
+    List<Bid> findLatestByBidderIdBefore(
+        @Param("bidderId") String bidderId,
+        @Param("status") Bid.BidStatus status,
+        @Param("bidTime") LocalDateTime bidTime,
+        @Param("bidId") String bidId,
+        Limit limit
+    );
     
     Optional<Bid> findTopByAuctionIdAndStatusOrderByAmountDesc(String auctionId, Bid.BidStatus status);
     
+    Optional<Bid> findTopByAuctionIdAndStatusInOrderByAmountDescBidTimeAsc(String auctionId, List<Bid.BidStatus> statuses);
+    
+    @Query("SELECT b FROM Bid b WHERE b.auction.id = :auctionId AND b.maxAmount IS NOT NULL AND b.status IN :statuses")
+    List<Bid> findProxyBids(@Param("auctionId") String auctionId, @Param("statuses") List<Bid.BidStatus> statuses);
+    
     @Query("SELECT COUNT(b) FROM Bid b WHERE b.auction.id = :auctionId AND b.status = :status")
     long countByAuctionIdAndStatus(@Param("auctionId") String auctionId, @Param("status") Bid.BidStatus status);
 }
\ No newline at end of file
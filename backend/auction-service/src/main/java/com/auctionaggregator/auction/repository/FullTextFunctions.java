@@ -0,0 +1,35 @@
+package com.auctionaggregator.auction.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Postgres full-text functions for criteria queries, registered through
+ * {@code META-INF/services}. Matching renders the {@code @@} operator itself,
+ * since only the operator can use the GIN index on {@code search_vector}.
+ */
+public class FullTextFunctions implements FunctionContributor {
+    
+    /**
+     * {@code matches_text(vector, query)}: whether the vector matches a web-search style query.
+     */
+    public static final String MATCHES = "matches_text";
+    
+    /**
+     * {@code rank_text(vector, query)}: the cover density rank of the vector for the query.
+     */
+    public static final String RANK = "rank_text";
+    
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        SqmFunctionRegistry registry = functionContributions.getFunctionRegistry();
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        registry.registerPattern(MATCHES, "(?1 @@ websearch_to_tsquery('english', ?2))",
+            types.resolve(StandardBasicTypes.BOOLEAN));
+        registry.registerPattern(RANK, "ts_rank_cd(?1, websearch_to_tsquery('english', ?2))",
+            types.resolve(StandardBasicTypes.FLOAT));
+    }
+}
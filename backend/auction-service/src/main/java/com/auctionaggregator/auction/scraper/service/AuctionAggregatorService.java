@@ -1,9 +1,12 @@
 package com.auctionaggregator.auction.scraper.service;
 
+import com.auctionaggregator.auction.cluster.ClusterMembership;
 import com.auctionaggregator.auction.entity.Auction;
 import com.auctionaggregator.auction.entity.AuctionImage;
 import com.auctionaggregator.auction.repository.AuctionRepository;
 import com.auctionaggregator.auction.scraper.model.ScrapedAuction;
+import com.auctionaggregator.auction.service.AuctionSearchService;
+import com.auctionaggregator.auction.timer.AuctionTimerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -15,6 +18,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 @Service
 @RequiredArgsConstructor
@@ -24,10 +28,18 @@ public class AuctionAggregatorService {
     
     private final List<AuctionScraperService> scraperServices;
     private final AuctionRepository auctionRepository;
+    private final AuctionTimerService auctionTimerService;
+    private final AuctionSearchService searchService;
     private final ScraperHealthService scraperHealthService;
+    private final ClusterMembership clusterMembership;
     
     @Scheduled(fixedDelay = 300000, initialDelay = 10000) // Run every 5 minutes
     public void aggregateAuctions() {
+        // Each replica only scrapes the sources it owns
+        aggregate(scraper -> clusterMembership.owns("scraper:" + scraper.getSourceName()));
+    }
+    
+    private void aggregate(Predicate<AuctionScraperService> owned) {
         log.info("Starting auction aggregation process");
         
         AtomicInteger totalScraped = new AtomicInteger(0);
@@ -35,6 +47,7 @@ public class AuctionAggregatorService {
         
         scraperServices.parallelStream()
             .filter(AuctionScraperService::isEnabled)
+            .filter(owned)
             .forEach(scraper -> {
                 String scraperName = scraper.getSourceName();
                 long startTime = System.currentTimeMillis();
@@ -97,7 +110,9 @@ public class AuctionAggregatorService {
             auction = createAuctionFromScraped(scrapedAuction);
         }
         
-        auctionRepository.save(auction);
+        auction = auctionRepository.save(auction);
+        auctionTimerService.schedule(auction);
+        searchService.updateAuctionIndex(auction);
         return true;
     }
     
@@ -118,6 +133,7 @@ public class AuctionAggregatorService {
             .sellerId("EXTERNAL_" + scraped.getSource())
             .viewCount(0)
             .watcherCount(0)
+            .bidCount(scraped.getBidCount() != null ? scraped.getBidCount() : 0)
             .build();
         
         // Add images
@@ -145,11 +161,9 @@ public class AuctionAggregatorService {
         auction.setCurrentPrice(scraped.getCurrentPrice());
         auction.setStatus(mapStatus(scraped.getStatus()));
         
-        // Update bid count if available
-        if (scraped.getBidCount() != null && scraped.getBidCount() > 0) {
-            // This is a simplified update - in real implementation, 
-            // you'd sync actual bids
-            auction.setViewCount(auction.getViewCount() + scraped.getBidCount());
+        // External bids are not synced individually; mirror the source's bid count
+        if (scraped.getBidCount() != null) {
+            auction.setBidCount(scraped.getBidCount());
         }
     }
     
@@ -196,6 +210,6 @@ public class AuctionAggregatorService {
     
     public void runManualSync() {
         log.info("Running manual sync");
-        aggregateAuctions();
+        aggregate(scraper -> true);
     }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.auctionaggregator.auction.search;
+
+import java.math.BigDecimal;
+
+public record AuctionLocation(String auctionId, BigDecimal latitude, BigDecimal longitude) {
+}
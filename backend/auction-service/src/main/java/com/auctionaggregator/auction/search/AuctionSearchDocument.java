@@ -0,0 +1,59 @@
+package com.auctionaggregator.auction.search;
+
+import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.entity.AuctionDetails;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The Elasticsearch representation of an auction. Must be built while the
+ * entity's lazy associations can still be loaded.
+ */
+public record AuctionSearchDocument(
+    String id,
+    String title,
+    String description,
+    String categoryId,
+    String categoryName,
+    String status,
+    String auctionType,
+    BigDecimal currentPrice,
+    BigDecimal buyNowPrice,
+    LocalDateTime startTime,
+    LocalDateTime endTime,
+    String source,
+    String sellerId,
+    List<String> tags,
+    String locationCity,
+    String locationState,
+    String locationCountry,
+    @JsonIgnore long version
+) {
+    
+    public static AuctionSearchDocument from(Auction auction) {
+        AuctionDetails details = auction.getDetails();
+        return new AuctionSearchDocument(
+            auction.getId(),
+            auction.getTitle(),
+            auction.getDescription(),
+            auction.getCategory() != null ? auction.getCategory().getId() : null,
+            auction.getCategory() != null ? auction.getCategory().getName() : null,
+            auction.getStatus().name(),
+            auction.getAuctionType().name(),
+            auction.getCurrentPrice(),
+            auction.getBuyNowPrice(),
+            auction.getStartTime(),
+            auction.getEndTime(),
+            auction.getSource(),
+            auction.getSellerId(),
+            auction.getTags() != null ? List.copyOf(auction.getTags()) : List.of(),
+            details != null ? details.getLocationCity() : null,
+            details != null ? details.getLocationState() : null,
+            details != null ? details.getLocationCountry() : null,
+            auction.getVersion() != null ? auction.getVersion() : 0L
+        );
+    }
+}
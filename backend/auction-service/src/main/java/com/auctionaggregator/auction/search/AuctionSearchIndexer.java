@@ -0,0 +1,276 @@
+package com.auctionaggregator.auction.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.auctionaggregator.auction.config.SearchConfiguration;
+import com.auctionaggregator.auction.repository.AuctionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the Elasticsearch auction index in step with the database.
+ * <p>
+ * Changes are queued by auction id only, so any number of updates to the
+ * same auction between two flushes collapse into one write. A single thread
+ * ships the queue as {@code _bulk} requests once it reaches the bulk size
+ * or the flush interval passes. Each document is rebuilt from the row as it
+ * is committed at that moment, and written with the entity version as an
+ * external version, so writes from several replicas can arrive in any order
+ * without an older state overwriting a newer one. Failed writes go back on
+ * the queue and the thread backs off exponentially until the cluster
+ * accepts them again.
+ */
+@Component
+@Slf4j
+public class AuctionSearchIndexer {
+    
+    private final ElasticsearchClient client;
+    private final AuctionRepository auctionRepository;
+    private final TransactionOperations transactionOperations;
+    private final SearchConfiguration.Indexing indexing;
+    private final LongSupplier clock;
+    private final Counter failures;
+    
+    // Auction id to the time of its oldest change not yet indexed
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private final Object signal = new Object();
+    private volatile boolean indexReady;
+    private volatile boolean running;
+    private Thread flusher;
+    
+    @Autowired
+    public AuctionSearchIndexer(ElasticsearchClient client, AuctionRepository auctionRepository,
+                                TransactionOperations transactionOperations, SearchConfiguration searchConfiguration,
+                                MeterRegistry meterRegistry) {
+        this(client, auctionRepository, transactionOperations, searchConfiguration, meterRegistry,
+            System::currentTimeMillis);
+    }
+    
+    AuctionSearchIndexer(ElasticsearchClient client, AuctionRepository auctionRepository,
+                         TransactionOperations transactionOperations, SearchConfiguration searchConfiguration,
+                         MeterRegistry meterRegistry, LongSupplier clock) {
+        this.client = client;
+        this.auctionRepository = auctionRepository;
+        this.transactionOperations = transactionOperations;
+        this.indexing = searchConfiguration.getIndexing();
+        this.clock = clock;
+        
+        Gauge.builder("auction.search.indexing.lag", this, AuctionSearchIndexer::getLagMillis)
+            .description("Age of the oldest auction change not yet visible in the search index")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        Gauge.builder("auction.search.indexing.pending", pending, Map::size)
+            .description("Auctions waiting to be indexed")
+            .register(meterRegistry);
+        this.failures = Counter.builder("auction.search.indexing.failures")
+            .description("Auction index writes that failed and were queued again")
+            .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!indexing.isEnabled()) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::run, "auction-search-indexer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+    
+    /**
+     * Queues an auction for indexing. The auction is deleted from the index if
+     * it no longer exists when the queue is flushed.
+     */
+    public void enqueue(String auctionId) {
+        if (!indexing.isEnabled()) {
+            return;
+        }
+        pending.putIfAbsent(auctionId, clock.getAsLong());
+        if (pending.size() >= indexing.getBulkSize()) {
+            synchronized (signal) {
+                signal.notifyAll();
+            }
+        }
+    }
+    
+    public int getPendingCount() {
+        return pending.size();
+    }
+    
+    public long getLagMillis() {
+        return pending.values().stream()
+            .mapToLong(since -> clock.getAsLong() - since)
+            .max()
+            .orElse(0);
+    }
+    
+    /**
+     * Ships everything queued so far.
+     *
+     * @return {@code true} if every write was accepted
+     */
+    public boolean flush() {
+        if (!ensureIndex()) {
+            return false;
+        }
+        List<String> auctionIds = new ArrayList<>(pending.keySet());
+        for (int from = 0; from < auctionIds.size(); from += indexing.getBulkSize()) {
+            int to = Math.min(from + indexing.getBulkSize(), auctionIds.size());
+            if (!ship(auctionIds.subList(from, to))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean ship(List<String> auctionIds) {
+        // Claim the ids first; a change committed from here on queues the auction again
+        Map<String, Long> batch = new LinkedHashMap<>();
+        for (String auctionId : auctionIds) {
+            Long since = pending.remove(auctionId);
+            if (since != null) {
+                batch.put(auctionId, since);
+            }
+        }
+        if (batch.isEmpty()) {
+            return true;
+        }
+        
+        try {
+            BulkResponse response = client.bulk(buildRequest(batch.keySet()));
+            int retried = 0;
+            for (BulkResponseItem item : response.items()) {
+                if (item.error() == null || item.status() == 409) {
+                    // A conflict means the index already holds this version or a newer one
+                    continue;
+                }
+                if (item.status() == 429 || item.status() >= 500) {
+                    requeue(item.id(), batch.get(item.id()));
+                    retried++;
+                } else {
+                    log.error("Auction {} rejected by the search index: {}", item.id(), item.error().reason());
+                }
+            }
+            if (retried > 0) {
+                failures.increment(retried);
+                log.warn("{} of {} auction index writes will be retried", retried, batch.size());
+            }
+            return retried == 0;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Bulk indexing of {} auctions failed, will retry", batch.size(), e);
+            batch.forEach(this::requeue);
+            failures.increment(batch.size());
+            return false;
+        }
+    }
+    
+    private BulkRequest buildRequest(Iterable<String> auctionIds) {
+        List<String> ids = new ArrayList<>();
+        auctionIds.forEach(ids::add);
+        Map<String, AuctionSearchDocument> documents = new LinkedHashMap<>();
+        transactionOperations.executeWithoutResult(status -> auctionRepository.findForIndexing(ids)
+            .forEach(auction -> documents.put(auction.getId(), AuctionSearchDocument.from(auction))));
+        
+        BulkRequest.Builder request = new BulkRequest.Builder().index(indexing.getIndexName());
+        for (String auctionId : ids) {
+            AuctionSearchDocument document = documents.get(auctionId);
+            if (document == null) {
+                request.operations(op -> op.delete(delete -> delete.id(auctionId)));
+            } else {
+                // external_gte lets changes that do not bump the version, such as details, through
+                request.operations(op -> op.index(index -> index
+                    .id(auctionId)
+                    .version(document.version())
+                    .versionType(VersionType.ExternalGte)
+                    .document(document)));
+            }
+        }
+        return request.build();
+    }
+    
+    private void requeue(String auctionId, long since) {
+        pending.merge(auctionId, since, Math::min);
+    }
+    
+    private boolean ensureIndex() {
+        if (indexReady) {
+            return true;
+        }
+        String indexName = indexing.getIndexName();
+        try (InputStream definition = getClass().getResourceAsStream("/elasticsearch/auction-index.json")) {
+            if (!client.indices().exists(exists -> exists.index(indexName)).value()) {
+                client.indices().create(create -> create.index(indexName).withJson(definition));
+                log.info("Created search index {}", indexName);
+            }
+            indexReady = true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Search index {} is not available yet", indexName, e);
+        }
+        return indexReady;
+    }
+    
+    private void run() {
+        long backoff = 0;
+        while (running) {
+            try {
+                if (backoff > 0) {
+                    Thread.sleep(backoff);
+                } else {
+                    awaitBatch();
+                }
+                backoff = flush() ? 0 : Math.min(Math.max(backoff * 2, indexing.getInitialBackoff()),
+                    indexing.getMaxBackoff());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Auction search indexer failed", e);
+            }
+        }
+    }
+    
+    private void awaitBatch() throws InterruptedException {
+        synchronized (signal) {
+            if (pending.size() < indexing.getBulkSize()) {
+                signal.wait(indexing.getFlushInterval());
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            try {
+                flusher.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!pending.isEmpty() && !flush()) {
+            log.warn("{} auctions could not be indexed before shutdown", pending.size());
+        }
+    }
+}
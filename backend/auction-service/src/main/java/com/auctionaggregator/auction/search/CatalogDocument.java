@@ -0,0 +1,31 @@
+package com.auctionaggregator.auction.search;
+
+import com.auctionaggregator.auction.entity.Auction;
+
+import java.util.List;
+
+/**
+ * The fields of an auction held by the embedded {@link InvertedIndex}.
+ */
+public record CatalogDocument(
+    String id,
+    String title,
+    String description,
+    List<String> tags,
+    String source,
+    String categoryId,
+    String status
+) {
+    
+    public static CatalogDocument from(Auction auction) {
+        return new CatalogDocument(
+            auction.getId(),
+            auction.getTitle(),
+            auction.getDescription(),
+            auction.getTags() != null ? List.copyOf(auction.getTags()) : List.of(),
+            auction.getSource(),
+            auction.getCategory() != null ? auction.getCategory().getId() : null,
+            auction.getStatus() != null ? auction.getStatus().name() : null
+        );
+    }
+}
@@ -0,0 +1,42 @@
+package com.auctionaggregator.auction.search;
+
+import com.auctionaggregator.auction.config.SearchConfiguration;
+import com.auctionaggregator.auction.dto.AuctionSearchDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet counts for source, category, status and tags, answered from
+ * {@link FacetIndex} bitmaps fed by {@link CatalogFeed}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogFacets implements CatalogListener {
+    
+    private final SearchConfiguration searchConfiguration;
+    private final FacetIndex facetIndex = new FacetIndex();
+    
+    @Override
+    public void upsert(CatalogDocument document) {
+        facetIndex.upsert(document);
+    }
+    
+    @Override
+    public void remove(String auctionId) {
+        facetIndex.remove(auctionId);
+    }
+    
+    /**
+     * Counts auctions per facet value under the search's source, category, status and tag filters.
+     *
+     * @param restrictTo the auctions matching the text query, or {@code null} if there is none
+     */
+    public Map<Facet, List<FacetCount>> count(AuctionSearchDTO search, Collection<String> restrictTo) {
+        return facetIndex.count(CatalogQuery.from(search), restrictTo,
+            searchConfiguration.getFacets().getMaxValues());
+    }
+}
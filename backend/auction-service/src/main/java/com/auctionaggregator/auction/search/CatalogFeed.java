@@ -0,0 +1,123 @@
+package com.auctionaggregator.auction.search;
+
+import com.auctionaggregator.auction.cluster.ClusterMembership;
+import com.auctionaggregator.auction.config.SearchConfiguration;
+import com.auctionaggregator.auction.repository.AuctionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams the auction catalog into the in-memory {@link CatalogListener}s.
+ * <p>
+ * The whole catalog is loaded once the application is ready. From then on
+ * every committed auction change marks the auction dirty, and a periodic
+ * refresh reloads the dirty auctions in batches, removing those that no
+ * longer exist. In a cluster the refresh also picks up auctions updated on
+ * other nodes.
+ */
+@Component
+@Slf4j
+public class CatalogFeed {
+    
+    private final AuctionRepository auctionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterMembership clusterMembership;
+    private final SearchConfiguration.Catalog catalog;
+    private final List<CatalogListener> listeners;
+    
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+    private volatile LocalDateTime lastResync;
+    
+    public CatalogFeed(AuctionRepository auctionRepository, TransactionTemplate transactionTemplate,
+                       ClusterMembership clusterMembership, SearchConfiguration searchConfiguration,
+                       List<CatalogListener> listeners) {
+        this.auctionRepository = auctionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clusterMembership = clusterMembership;
+        this.catalog = searchConfiguration.getCatalog();
+        this.listeners = listeners;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long start = System.currentTimeMillis();
+        // Taken before loading, so changes made during the load are caught by the next resync
+        lastResync = LocalDateTime.now();
+        List<String> auctionIds = auctionRepository.findAllIds();
+        load(auctionIds);
+        loaded = true;
+        listeners.forEach(CatalogListener::loaded);
+        log.info("Catalog of {} auctions loaded into {} in-memory views in {} ms",
+            auctionIds.size(), listeners.size(), System.currentTimeMillis() - start);
+    }
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    public void markDirty(String auctionId) {
+        dirty.add(auctionId);
+    }
+    
+    @Scheduled(fixedDelayString = "${auction.search.catalog.refresh-interval:500}")
+    public synchronized void refresh() {
+        if (!loaded || dirty.isEmpty()) {
+            return;
+        }
+        List<String> auctionIds = new ArrayList<>();
+        for (String auctionId : dirty) {
+            if (dirty.remove(auctionId)) {
+                auctionIds.add(auctionId);
+            }
+        }
+        try {
+            load(auctionIds);
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh {} auctions in the in-memory catalog", auctionIds.size(), e);
+            dirty.addAll(auctionIds);
+        }
+    }
+    
+    /**
+     * Picks up auctions changed on other nodes. A single node sees every change itself.
+     */
+    @Scheduled(fixedDelayString = "${auction.search.catalog.resync-interval:60000}")
+    public void resync() {
+        if (!loaded || clusterMembership.getMembers().size() <= 1) {
+            return;
+        }
+        // Overlap the previous window to absorb clock skew between nodes
+        LocalDateTime since = lastResync.minus(Duration.ofMillis(catalog.getResyncInterval()));
+        lastResync = LocalDateTime.now();
+        dirty.addAll(auctionRepository.findIdsUpdatedSince(since));
+    }
+    
+    private void load(List<String> auctionIds) {
+        int batchSize = catalog.getLoadBatchSize();
+        for (int from = 0; from < auctionIds.size(); from += batchSize) {
+            List<String> batch = auctionIds.subList(from, Math.min(from + batchSize, auctionIds.size()));
+            List<CatalogDocument> documents = transactionTemplate.execute(status ->
+                auctionRepository.findForIndexing(batch).stream().map(CatalogDocument::from).toList());
+            
+            Set<String> missing = new HashSet<>(batch);
+            for (CatalogDocument document : documents) {
+                listeners.forEach(listener -> listener.upsert(document));
+                missing.remove(document.id());
+            }
+            missing.forEach(auctionId -> listeners.forEach(listener -> listener.remove(auctionId)));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.auctionaggregator.auction.search;
+
+/**
+ * An in-memory view of the auction catalog kept current by {@link CatalogFeed}.
+ * Callbacks come from a single thread at a time.
+ */
+public interface CatalogListener {
+    
+    void upsert(CatalogDocument document);
+    
+    void remove(String auctionId);
+    
+    /**
+     * Called once the initial load from the database has completed.
+     */
+    default void loaded() {
+    }
+}
@@ -0,0 +1,34 @@
+package com.auctionaggregator.auction.search;
+
+import com.auctionaggregator.auction.dto.AuctionSearchDTO;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A ranked text query with optional exact filters; {@code null} filters match everything.
+ *
+ * @param tags every tag the document must carry
+ */
+public record CatalogQuery(
+    String text,
+    String source,
+    String categoryId,
+    String status,
+    List<String> tags
+) {
+    
+    public static CatalogQuery from(AuctionSearchDTO search) {
+        List<String> tags = search.getTags() == null ? null : Arrays.stream(search.getTags())
+            .filter(StringUtils::hasText)
+            .map(String::trim)
+            .toList();
+        return new CatalogQuery(
+            search.getQuery(),
+            StringUtils.hasText(search.getSource()) ? search.getSource() : null,
+            StringUtils.hasText(search.getCategoryId()) ? search.getCategoryId() : null,
+            search.getStatus() != null ? search.getStatus().name() : null,
+            tags);
+    }
+}
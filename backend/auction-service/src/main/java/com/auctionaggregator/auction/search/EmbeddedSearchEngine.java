@@ -0,0 +1,66 @@
+package com.auctionaggregator.auction.search;
+
+import com.auctionaggregator.auction.config.SearchConfiguration;
+import com.auctionaggregator.auction.dto.AuctionSearchDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Serves full-text auction search from an in-process {@link InvertedIndex},
+ * for deployments that run without Elasticsearch. The index is fed by
+ * {@link CatalogFeed}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "auction.search.embedded", name = "enabled", havingValue = "true")
+public class EmbeddedSearchEngine implements CatalogListener {
+    
+    private final InvertedIndex index;
+    private volatile boolean ready;
+    
+    public EmbeddedSearchEngine(SearchConfiguration searchConfiguration) {
+        SearchConfiguration.Embedded embedded = searchConfiguration.getEmbedded();
+        this.index = new InvertedIndex(embedded.getK1(), embedded.getB());
+    }
+    
+    @Override
+    public void upsert(CatalogDocument document) {
+        index.upsert(document);
+    }
+    
+    @Override
+    public void remove(String auctionId) {
+        index.remove(auctionId);
+    }
+    
+    @Override
+    public void loaded() {
+        ready = true;
+    }
+    
+    /**
+     * Until the initial load completes, searches should fall back to the database.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * @return the ids of the best text matches passing the indexed filters, most relevant first
+     */
+    public List<String> search(AuctionSearchDTO search, int limit) {
+        return index.search(CatalogQuery.from(search), limit).stream()
+            .map(InvertedIndex.Hit::auctionId)
+            .toList();
+    }
+    
+    /**
+     * @return the ids of every text match, unfiltered and in no particular order
+     */
+    public List<String> matching(String text) {
+        return index.search(new CatalogQuery(text, null, null, null, null), Integer.MAX_VALUE).stream()
+            .map(InvertedIndex.Hit::auctionId)
+            .toList();
+    }
+}
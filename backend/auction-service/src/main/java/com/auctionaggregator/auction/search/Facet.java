@@ -0,0 +1,11 @@
+package com.auctionaggregator.auction.search;
+
+/**
+ * Exact-valued auction attributes that searches can filter and count by.
+ */
+public enum Facet {
+    SOURCE,
+    CATEGORY,
+    STATUS,
+    TAG
+}
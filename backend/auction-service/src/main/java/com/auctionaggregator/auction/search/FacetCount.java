@@ -0,0 +1,4 @@
+package com.auctionaggregator.auction.search;
+
+public record FacetCount(String value, int count) {
+}
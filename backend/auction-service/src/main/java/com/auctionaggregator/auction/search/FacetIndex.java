@@ -0,0 +1,232 @@
+package com.auctionaggregator.auction.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Facet postings over the auction catalog.
+ * <p>
+ * Each auction gets a dense int ordinal, reused after removal, and every
+ * facet value keeps an {@link OrdinalBitmap} of the auctions carrying it.
+ * Filtering is a bitmap intersection, and counting a facet value is the
+ * cardinality of its bitmap intersected with the filtered set, so a full set
+ * of counts never touches the auctions themselves.
+ */
+public class FacetIndex {
+    
+    private static final Comparator<FacetCount> MOST_FREQUENT_FIRST = Comparator
+        .comparingInt(FacetCount::count).reversed()
+        .thenComparing(FacetCount::value);
+    
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<CatalogDocument> documents = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final OrdinalBitmap all = new OrdinalBitmap();
+    private final Map<Facet, Map<String, OrdinalBitmap>> postings = new EnumMap<>(Facet.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    public FacetIndex() {
+        for (Facet facet : Facet.values()) {
+            postings.put(facet, new HashMap<>());
+        }
+    }
+    
+    /**
+     * Adds or replaces an auction.
+     *
+     * @return the ordinal of the auction
+     */
+    public int upsert(CatalogDocument document) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(document.id());
+            if (ordinal != null) {
+                unindex(ordinal, documents.get(ordinal));
+            } else {
+                ordinal = freeOrdinals.isEmpty() ? documents.size() : freeOrdinals.pop();
+                if (ordinal == documents.size()) {
+                    documents.add(null);
+                }
+                ordinals.put(document.id(), ordinal);
+                all.add(ordinal);
+            }
+            documents.set(ordinal, document);
+            index(ordinal, document);
+            return ordinal;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public boolean remove(String auctionId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(auctionId);
+            if (ordinal == null) {
+                return false;
+            }
+            unindex(ordinal, documents.get(ordinal));
+            documents.set(ordinal, null);
+            all.remove(ordinal);
+            freeOrdinals.push(ordinal);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public Integer ordinalOf(String auctionId) {
+        lock.readLock().lock();
+        try {
+            return ordinals.get(auctionId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public CatalogDocument document(int ordinal) {
+        lock.readLock().lock();
+        try {
+            return ordinal < documents.size() ? documents.get(ordinal) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * @return the auctions passing every filter of the query, or {@code null} if it has none
+     */
+    public OrdinalBitmap matching(CatalogQuery query) {
+        lock.readLock().lock();
+        try {
+            List<OrdinalBitmap> required = filters(query, null);
+            return required.isEmpty() ? null : intersect(required);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Counts the auctions per facet value. The filter on a facet is left out
+     * when counting that facet itself, so its counts show what choosing
+     * another value instead would return.
+     *
+     * @param query the filters; its text is ignored
+     * @param restrictTo the auctions to count within, such as text matches, or {@code null} for all
+     * @param maxValues the number of most frequent values to return per facet
+     */
+    public Map<Facet, List<FacetCount>> count(CatalogQuery query, Collection<String> restrictTo, int maxValues) {
+        lock.readLock().lock();
+        try {
+            OrdinalBitmap scope = restrictTo == null ? all : toBitmap(restrictTo);
+            Map<Facet, List<FacetCount>> counts = new EnumMap<>(Facet.class);
+            for (Facet facet : Facet.values()) {
+                List<OrdinalBitmap> required = filters(query, facet);
+                required.add(scope);
+                OrdinalBitmap base = intersect(required);
+                
+                List<FacetCount> values = new ArrayList<>();
+                if (!base.isEmpty()) {
+                    postings.get(facet).forEach((value, bitmap) -> {
+                        int count = base.andCardinality(bitmap);
+                        if (count > 0) {
+                            values.add(new FacetCount(value, count));
+                        }
+                    });
+                }
+                values.sort(MOST_FREQUENT_FIRST);
+                counts.put(facet, List.copyOf(values.subList(0, Math.min(maxValues, values.size()))));
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private List<OrdinalBitmap> filters(CatalogQuery query, Facet excluded) {
+        List<OrdinalBitmap> required = new ArrayList<>();
+        addFilter(required, Facet.SOURCE, query.source(), excluded);
+        addFilter(required, Facet.CATEGORY, query.categoryId(), excluded);
+        addFilter(required, Facet.STATUS, query.status(), excluded);
+        if (query.tags() != null) {
+            query.tags().forEach(tag -> addFilter(required, Facet.TAG, tag, excluded));
+        }
+        return required;
+    }
+    
+    private void addFilter(List<OrdinalBitmap> required, Facet facet, String value, Facet excluded) {
+        if (value != null && facet != excluded) {
+            required.add(postings.get(facet).getOrDefault(value, new OrdinalBitmap()));
+        }
+    }
+    
+    private static OrdinalBitmap intersect(List<OrdinalBitmap> bitmaps) {
+        // Start from the smallest set so every step shrinks the work
+        bitmaps.sort(Comparator.comparingInt(OrdinalBitmap::cardinality));
+        OrdinalBitmap result = bitmaps.get(0).copy();
+        for (int i = 1; i < bitmaps.size() && !result.isEmpty(); i++) {
+            result = result.and(bitmaps.get(i));
+        }
+        return result;
+    }
+    
+    private OrdinalBitmap toBitmap(Collection<String> auctionIds) {
+        OrdinalBitmap bitmap = new OrdinalBitmap();
+        for (String auctionId : auctionIds) {
+            Integer ordinal = ordinals.get(auctionId);
+            if (ordinal != null) {
+                bitmap.add(ordinal);
+            }
+        }
+        return bitmap;
+    }
+    
+    private void index(int ordinal, CatalogDocument document) {
+        add(Facet.SOURCE, document.source(), ordinal);
+        add(Facet.CATEGORY, document.categoryId(), ordinal);
+        add(Facet.STATUS, document.status(), ordinal);
+        document.tags().forEach(tag -> add(Facet.TAG, tag, ordinal));
+    }
+    
+    private void unindex(int ordinal, CatalogDocument document) {
+        remove(Facet.SOURCE, document.source(), ordinal);
+        remove(Facet.CATEGORY, document.categoryId(), ordinal);
+        remove(Facet.STATUS, document.status(), ordinal);
+        document.tags().forEach(tag -> remove(Facet.TAG, tag, ordinal));
+    }
+    
+    private void add(Facet facet, String value, int ordinal) {
+        if (value != null) {
+            postings.get(facet).computeIfAbsent(value, v -> new OrdinalBitmap()).add(ordinal);
+        }
+    }
+    
+    private void remove(Facet facet, String value, int ordinal) {
+        if (value == null) {
+            return;
+        }
+        Map<String, OrdinalBitmap> values = postings.get(facet);
+        OrdinalBitmap bitmap = values.get(value);
+        if (bitmap != null && bitmap.remove(ordinal) && bitmap.isEmpty()) {
+            values.remove(value);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.auctionaggregator.auction.search;
+
+/**
+ * Latitude/longitude rectangle in degrees. A box whose west edge is east of
+ * its east edge wraps across the antimeridian.
+ */
+public record GeoBox(double south, double west, double north, double east) {
+    
+    public GeoBox {
+        if (south < -90 || north > 90 || south > north) {
+            throw new IllegalArgumentException("Latitudes must lie within [-90, 90] with south <= north");
+        }
+        if (west < -180 || west > 180 || east < -180 || east > 180) {
+            throw new IllegalArgumentException("Longitudes must lie within [-180, 180]");
+        }
+    }
+    
+    /**
+     * The smallest box containing the circle of the given radius around a point.
+     */
+    public static GeoBox around(double latitude, double longitude, double radiusKm) {
+        double angular = radiusKm / Geohash.EARTH_RADIUS_KM;
+        double south = latitude - Math.toDegrees(angular);
+        double north = latitude + Math.toDegrees(angular);
+        if (south <= -90 || north >= 90) {
+            // The circle contains a pole, so it spans every longitude
+            return new GeoBox(Math.max(south, -90), -180, Math.min(north, 90), 180);
+        }
+        
+        double deltaLongitude = Math.toDegrees(Math.asin(Math.sin(angular) / Math.cos(Math.toRadians(latitude))));
+        double west = longitude - deltaLongitude;
+        double east = longitude + deltaLongitude;
+        if (east - west >= 360) {
+            return new GeoBox(south, -180, north, 180);
+        }
+        return new GeoBox(south, west < -180 ? west + 360 : west, north, east > 180 ? east - 360 : east);
+    }
+    
+    public boolean crossesAntimeridian() {
+        return west > east;
+    }
+    
+    public boolean contains(double latitude, double longitude) {
+        if (latitude < south || latitude > north) {
+            return false;
+        }
+        return crossesAntimeridian()
+            ? longitude >= west || longitude <= east
+            : longitude >= west && longitude <= east;
+    }
+}
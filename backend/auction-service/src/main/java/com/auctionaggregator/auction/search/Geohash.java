@@ -0,0 +1,177 @@
+package com.auctionaggregator.auction.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Geohash encoding and coverage of boxes by geohash cells.
+ * <p>
+ * A geohash interleaves longitude and latitude bits, five per character, so
+ * every prefix names a rectangular cell and all points inside it share that
+ * prefix. With the ASCII-ordered alphabet a cell is a contiguous range of
+ * hashes under byte-wise collation, which lets a plain B-tree on
+ * {@code auction_details.geohash} find the candidates of an area with a
+ * handful of range scans.
+ */
+public final class Geohash {
+    
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    
+    /**
+     * Precision stored per auction, cells of roughly 5 by 5 meters.
+     */
+    public static final int PRECISION = 9;
+    
+    /**
+     * Upper bound on cells per covered box; coarser cells are used rather than more of them.
+     */
+    public static final int MAX_COVER_CELLS = 16;
+    
+    private static final String ALPHABET = "0123456789bcdefghjkmnpqrstuvwxyz";
+    
+    private Geohash() {
+    }
+    
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLatitude = -90;
+        double maxLatitude = 90;
+        double minLongitude = -180;
+        double maxLongitude = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bits = 0;
+        int value = 0;
+        
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLongitude + maxLongitude) / 2;
+                if (longitude >= mid) {
+                    value = value * 2 + 1;
+                    minLongitude = mid;
+                } else {
+                    value = value * 2;
+                    maxLongitude = mid;
+                }
+            } else {
+                double mid = (minLatitude + maxLatitude) / 2;
+                if (latitude >= mid) {
+                    value = value * 2 + 1;
+                    minLatitude = mid;
+                } else {
+                    value = value * 2;
+                    maxLatitude = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bits == 5) {
+                hash.append(ALPHABET.charAt(value));
+                bits = 0;
+                value = 0;
+            }
+        }
+        return hash.toString();
+    }
+    
+    /**
+     * Hash ranges whose cells together cover the box, using the finest
+     * precision that needs at most {@link #MAX_COVER_CELLS} cells. Adjacent
+     * cells are merged, so the ranges are disjoint and sorted.
+     */
+    public static List<Range> cover(GeoBox box) {
+        List<GeoBox> parts = box.crossesAntimeridian()
+            ? List.of(new GeoBox(box.south(), box.west(), box.north(), 180),
+                new GeoBox(box.south(), -180, box.north(), box.east()))
+            : List.of(box);
+        
+        int precision = 1;
+        while (precision < PRECISION && cellCount(parts, precision + 1) <= MAX_COVER_CELLS) {
+            precision++;
+        }
+        
+        TreeSet<String> cells = new TreeSet<>();
+        for (GeoBox part : parts) {
+            double width = cellWidth(precision);
+            double height = cellHeight(precision);
+            for (long row = row(part.south(), height); row <= row(part.north(), height); row++) {
+                for (long column = column(part.west(), width); column <= column(part.east(), width); column++) {
+                    cells.add(encode(-90 + (row + 0.5) * height, -180 + (column + 0.5) * width, precision));
+                }
+            }
+        }
+        
+        List<Range> ranges = new ArrayList<>();
+        for (String cell : cells) {
+            String end = successor(cell);
+            Range last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+            if (last != null && last.to().equals(cell)) {
+                ranges.set(ranges.size() - 1, new Range(last.from(), end));
+            } else {
+                ranges.add(new Range(cell, end));
+            }
+        }
+        return ranges;
+    }
+    
+    /**
+     * Great-circle distance by the haversine formula.
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+        double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.pow(Math.sin(deltaLatitude / 2), 2)
+            + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+            * Math.pow(Math.sin(deltaLongitude / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+    
+    private static long cellCount(List<GeoBox> parts, int precision) {
+        long count = 0;
+        for (GeoBox part : parts) {
+            long rows = row(part.north(), cellHeight(precision)) - row(part.south(), cellHeight(precision)) + 1;
+            long columns = column(part.east(), cellWidth(precision)) - column(part.west(), cellWidth(precision)) + 1;
+            count += rows * columns;
+        }
+        return count;
+    }
+    
+    private static double cellWidth(int precision) {
+        return 360 / Math.pow(2, (5 * precision + 1) / 2);
+    }
+    
+    private static double cellHeight(int precision) {
+        return 180 / Math.pow(2, 5 * precision / 2);
+    }
+    
+    private static long row(double latitude, double height) {
+        long rows = Math.round(180 / height);
+        return Math.min((long) Math.floor((latitude + 90) / height), rows - 1);
+    }
+    
+    private static long column(double longitude, double width) {
+        long columns = Math.round(360 / width);
+        return Math.min((long) Math.floor((longitude + 180) / width), columns - 1);
+    }
+    
+    /**
+     * The smallest hash greater than every hash starting with the prefix.
+     */
+    private static String successor(String prefix) {
+        int end = prefix.length();
+        while (end > 0 && prefix.charAt(end - 1) == ALPHABET.charAt(ALPHABET.length() - 1)) {
+            end--;
+        }
+        if (end == 0) {
+            // Past the last cell; sorts after every alphabet character
+            return "~";
+        }
+        char next = ALPHABET.charAt(ALPHABET.indexOf(prefix.charAt(end - 1)) + 1);
+        return prefix.substring(0, end - 1) + next;
+    }
+    
+    /**
+     * Hashes {@code h} with {@code from <= h < to}.
+     */
+    public record Range(String from, String to) {
+    }
+}
@@ -0,0 +1,216 @@
+package com.auctionaggregator.auction.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the auction catalog with BM25 ranking.
+ * <p>
+ * Documents are keyed by the dense ordinals of an embedded {@link FacetIndex},
+ * so postings stay compact. Title, tags and description each have their own
+ * postings and length statistics; a query scores every field with BM25 and
+ * sums the results with the field's boost. Filters are resolved to a facet
+ * bitmap that restricts the candidates before any scoring. Updates take a
+ * write lock, searches share a read lock.
+ */
+public class InvertedIndex {
+    
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on", "or",
+        "the", "to", "with");
+    private static final Comparator<Hit> WEAKEST_FIRST = Comparator
+        .comparingDouble(Hit::score)
+        .thenComparing(Hit::auctionId, Comparator.reverseOrder());
+    
+    private final double k1;
+    private final double b;
+    
+    private final FacetIndex facetIndex = new FacetIndex();
+    private final Map<TextField, FieldPostings> textFields = new EnumMap<>(TextField.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    /**
+     * @param k1 term frequency saturation
+     * @param b how strongly scores are normalized by field length
+     */
+    public InvertedIndex(double k1, double b) {
+        this.k1 = k1;
+        this.b = b;
+        for (TextField field : TextField.values()) {
+            textFields.put(field, new FieldPostings());
+        }
+    }
+    
+    public void upsert(CatalogDocument document) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = facetIndex.ordinalOf(document.id());
+            if (existing != null) {
+                unindex(existing, facetIndex.document(existing));
+            }
+            index(facetIndex.upsert(document), document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public boolean remove(String auctionId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = facetIndex.ordinalOf(auctionId);
+            if (ordinal == null) {
+                return false;
+            }
+            unindex(ordinal, facetIndex.document(ordinal));
+            return facetIndex.remove(auctionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        return facetIndex.size();
+    }
+    
+    /**
+     * Returns the best matches for the query, highest score first. A document
+     * must contain at least one query term and pass every filter.
+     */
+    public List<Hit> search(CatalogQuery query, int limit) {
+        List<String> terms = tokenize(query.text()).stream().distinct().toList();
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            OrdinalBitmap candidates = facetIndex.matching(query);
+            if (candidates != null && candidates.isEmpty()) {
+                return List.of();
+            }
+            
+            Map<Integer, Double> scores = new HashMap<>();
+            int documentCount = facetIndex.size();
+            for (TextField field : TextField.values()) {
+                FieldPostings fieldPostings = textFields.get(field);
+                double averageLength = fieldPostings.averageLength(documentCount);
+                for (String term : terms) {
+                    Map<Integer, Integer> postings = fieldPostings.postings.get(term);
+                    if (postings == null) {
+                        continue;
+                    }
+                    double idf = Math.log(1 + (documentCount - postings.size() + 0.5) / (postings.size() + 0.5));
+                    postings.forEach((ordinal, frequency) -> {
+                        if (candidates == null || candidates.contains(ordinal)) {
+                            double norm = k1 * (1 - b + b * fieldPostings.lengths[ordinal] / averageLength);
+                            double score = field.boost * idf * frequency * (k1 + 1) / (frequency + norm);
+                            scores.merge(ordinal, score, Double::sum);
+                        }
+                    });
+                }
+            }
+            
+            PriorityQueue<Hit> best = new PriorityQueue<>(WEAKEST_FIRST);
+            scores.forEach((ordinal, score) -> {
+                best.add(new Hit(facetIndex.document(ordinal).id(), score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            });
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(WEAKEST_FIRST.reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void index(int ordinal, CatalogDocument document) {
+        for (TextField field : TextField.values()) {
+            textFields.get(field).add(ordinal, tokenize(field.text(document)));
+        }
+    }
+    
+    private void unindex(int ordinal, CatalogDocument document) {
+        for (TextField field : TextField.values()) {
+            textFields.get(field).remove(ordinal, tokenize(field.text(document)));
+        }
+    }
+    
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+            .filter(token -> !token.isEmpty() && !STOP_WORDS.contains(token))
+            .toList();
+    }
+    
+    public record Hit(String auctionId, double score) {
+    }
+    
+    private enum TextField {
+        TITLE(2.0),
+        TAGS(1.5),
+        DESCRIPTION(1.0);
+        
+        private final double boost;
+        
+        TextField(double boost) {
+            this.boost = boost;
+        }
+        
+        String text(CatalogDocument document) {
+            return switch (this) {
+                case TITLE -> document.title();
+                case TAGS -> String.join(" ", document.tags());
+                case DESCRIPTION -> document.description();
+            };
+        }
+    }
+    
+    private static final class FieldPostings {
+        
+        // Term to ordinal to term frequency
+        private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+        private int[] lengths = new int[16];
+        private long totalLength;
+        
+        void add(int ordinal, List<String> tokens) {
+            if (ordinal >= lengths.length) {
+                lengths = Arrays.copyOf(lengths, Math.max(lengths.length * 2, ordinal + 1));
+            }
+            lengths[ordinal] = tokens.size();
+            totalLength += tokens.size();
+            tokens.forEach(token -> postings.computeIfAbsent(token, t -> new HashMap<>()).merge(ordinal, 1, Integer::sum));
+        }
+        
+        void remove(int ordinal, List<String> tokens) {
+            totalLength -= lengths[ordinal];
+            lengths[ordinal] = 0;
+            for (String token : new HashSet<>(tokens)) {
+                Map<Integer, Integer> termPostings = postings.get(token);
+                if (termPostings != null && termPostings.remove(ordinal) != null && termPostings.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+        
+        double averageLength(int documentCount) {
+            return documentCount == 0 || totalLength == 0 ? 1 : (double) totalLength / documentCount;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.auctionaggregator.auction.service;
 
+import com.auctionaggregator.auction.dto.AuctionStatusUpdate;
 import com.auctionaggregator.auction.entity.Auction;
 import com.auctionaggregator.auction.entity.Bid;
+import com.auctionaggregator.auction.websocket.BidWebSocketHandler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -11,6 +13,8 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class AuctionNotificationService {
     
+    private final BidWebSocketHandler webSocketHandler;
+    
     public void notifyAuctionStarted(Auction auction) {
         log.info("Notifying auction started: {}", auction.getId());
         // TODO: Implement notification
@@ -18,21 +22,25 @@ public class AuctionNotificationService {
     
     public void notifyAuctionCancelled(Auction auction, String reason) {
         log.info("Notifying auction cancelled: {} - Reason: {}", auction.getId(), reason);
+        broadcastStatus(auction, "CANCELLED", reason);
         // TODO: Implement notification
     }
     
     public void notifyAuctionEndingSoon(Auction auction) {
         log.info("Notifying auction ending soon: {}", auction.getId());
+        broadcastStatus(auction, "ENDING_SOON", null);
         // TODO: Implement notification
     }
     
     public void notifyAuctionEnded(Auction auction) {
         log.info("Notifying auction ended: {}", auction.getId());
+        broadcastStatus(auction, "ENDED", null);
         // TODO: Implement notification
     }
     
     public void notifyAuctionExtended(Auction auction) {
         log.info("Notifying auction extended: {}", auction.getId());
+        broadcastStatus(auction, "EXTENDED", null);
         // TODO: Implement notification
     }
     
@@ -50,4 +58,13 @@ public class AuctionNotificationService {
         log.info("Notifying bid cancelled on auction: {} - Bid: {}", auction.getId(), bid.getId());
         // TODO: Implement notification
     }
-}
\ No newline at end of file
+    
+    private void broadcastStatus(Auction auction, String updateType, String reason) {
+        webSocketHandler.broadcastAuctionUpdate(auction.getId(), updateType, AuctionStatusUpdate.builder()
+            .status(auction.getStatus())
+            .currentPrice(auction.getCurrentPrice())
+            .endTime(auction.getEndTime())
+            .reason(reason)
+            .build());
+    }
+}
@@ -1,27 +1,62 @@
 package com.auctionaggregator.auction.service;
 
 import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.search.AuctionSearchIndexer;
+import com.auctionaggregator.auction.search.CatalogFeed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Entry point for keeping the search indexes current. Calls only queue the
+ * auction, after the surrounding transaction commits; {@link AuctionSearchIndexer}
+ * and the in-memory views fed by {@link CatalogFeed} apply it asynchronously.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuctionSearchService {
     
+    private final AuctionSearchIndexer searchIndexer;
+    private final CatalogFeed catalogFeed;
+    
     public void indexAuction(Auction auction) {
-        log.info("Indexing auction: {}", auction.getId());
-        // TODO: Implement Elasticsearch indexing
+        log.debug("Queueing auction for indexing: {}", auction.getId());
+        enqueueAfterCommit(auction.getId());
     }
     
     public void updateAuctionIndex(Auction auction) {
-        log.info("Updating auction index: {}", auction.getId());
-        // TODO: Implement Elasticsearch update
+        log.debug("Queueing auction index update: {}", auction.getId());
+        enqueueAfterCommit(auction.getId());
+    }
+    
+    public void updateAuctionIndex(String auctionId) {
+        enqueueAfterCommit(auctionId);
     }
     
     public void deleteAuctionIndex(String auctionId) {
-        log.info("Deleting auction from index: {}", auctionId);
-        // TODO: Implement Elasticsearch delete
+        log.debug("Queueing auction for removal from index: {}", auctionId);
+        enqueueAfterCommit(auctionId);
+    }
+    
+    private void enqueueAfterCommit(String auctionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(auctionId);
+            return;
+        }
+        // A rolled back change must not be indexed, and the indexer reads the committed row
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(auctionId);
+            }
+        });
+    }
+    
+    private void enqueue(String auctionId) {
+        searchIndexer.enqueue(auctionId);
+        catalogFeed.markDirty(auctionId);
     }
-}
\ No newline at end of file
+}
@@ -1,25 +1,61 @@
 package com.auctionaggregator.auction.service;
 
+import com.auctionaggregator.auction.bidding.AuctionBookSequencer;
+import com.auctionaggregator.auction.bidding.BidJournal;
+import com.auctionaggregator.auction.bidding.BidJournalDrainer;
+import com.auctionaggregator.auction.cache.AuctionCache;
+import com.auctionaggregator.auction.cache.CachedAuction;
+import com.auctionaggregator.auction.config.SearchConfiguration;
 import com.auctionaggregator.auction.dto.AuctionCreateDTO;
 import com.auctionaggregator.auction.dto.AuctionDTO;
 import com.auctionaggregator.auction.dto.AuctionSearchDTO;
 import com.auctionaggregator.auction.dto.AuctionUpdateDTO;
+import com.auctionaggregator.auction.dto.CursorPage;
 import com.auctionaggregator.auction.entity.Auction;
 import com.auctionaggregator.auction.entity.AuctionHistory;
+import com.auctionaggregator.auction.entity.Bid;
 import com.auctionaggregator.auction.exception.AuctionNotFoundException;
 import com.auctionaggregator.auction.mapper.AuctionMapper;
+import com.auctionaggregator.auction.pagination.AuctionSort;
+import com.auctionaggregator.auction.pagination.CursorCodec;
 import com.auctionaggregator.auction.repository.AuctionRepository;
+import com.auctionaggregator.auction.repository.AuctionSpecifications;
+import com.auctionaggregator.auction.repository.BidRepository;
+import com.auctionaggregator.auction.search.CatalogFacets;
+import com.auctionaggregator.auction.search.EmbeddedSearchEngine;
+import com.auctionaggregator.auction.search.Facet;
+import com.auctionaggregator.auction.search.FacetCount;
+import com.auctionaggregator.auction.search.GeoBox;
+import com.auctionaggregator.auction.search.Geohash;
+import com.auctionaggregator.auction.timer.AuctionDeadline;
+import com.auctionaggregator.auction.timer.AuctionTimerService;
+import com.auctionaggregator.auction.timer.EndTimeIndex;
+import com.auctionaggregator.auction.trending.TrendingIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -28,10 +64,24 @@ import java.util.List;
 public class AuctionService {
     
     private final AuctionRepository auctionRepository;
+    private final BidRepository bidRepository;
     private final AuctionMapper auctionMapper;
     private final AuctionHistoryService historyService;
     private final AuctionNotificationService notificationService;
     private final AuctionSearchService searchService;
+    private final AuctionBookSequencer bidSequencer;
+    private final BidJournal bidJournal;
+    private final BidJournalDrainer bidJournalDrainer;
+    private final ProxyBiddingService proxyBiddingService;
+    private final AuctionTimerService auctionTimerService;
+    private final ViewCountBuffer viewCountBuffer;
+    private final AuctionCache auctionCache;
+    private final TrendingIndex trendingIndex;
+    private final EndTimeIndex endTimeIndex;
+    private final SearchConfiguration searchConfiguration;
+    private final ObjectProvider<EmbeddedSearchEngine> embeddedSearchEngine;
+    private final CatalogFacets catalogFacets;
+    private final TransactionTemplate transactionTemplate;
     
     public AuctionDTO createAuction(AuctionCreateDTO createDTO, String sellerId) {
         log.info("Creating new auction for seller: {}", sellerId);
@@ -62,6 +112,7 @@ public class AuctionService {
         
         auctionMapper.updateEntity(updateDTO, auction);
         auction = auctionRepository.save(auction);
+        auctionCache.evict(auction);
         
         historyService.recordHistory(auction, AuctionHistory.ActionType.UPDATED, userId, "Auction updated");
         searchService.updateAuctionIndex(auction);
@@ -69,16 +120,239 @@ public class AuctionService {
         return auctionMapper.toDTO(auction);
     }
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuctionDTO getAuction(String auctionId) {
-        Auction auction = getAuctionById(auctionId);
-        incrementViewCount(auction);
-        return auctionMapper.toDTO(auction);
+        AuctionDTO cached = getCachedAuction(auctionId);
+        viewCountBuffer.recordView(auctionId);
+        if (isLive(cached)) {
+            // Finished auctions were removed from the index and must not be re-inserted by late views
+            trendingIndex.recordView(auctionId);
+        }
+        
+        return cached.toBuilder()
+            .viewCount(cached.getViewCount() + (int) viewCountBuffer.getPendingViews(auctionId))
+            .build();
     }
     
+    /**
+     * Searches auctions. Free-text matches are ordered by relevance and
+     * proximity searches around a center by distance, unless the page asks
+     * for another order; a center takes precedence over a bounding box.
+     */
+    @Transactional(readOnly = true)
     public Page<AuctionDTO> searchAuctions(AuctionSearchDTO searchDTO, Pageable pageable) {
         Specification<Auction> spec = buildSearchSpecification(searchDTO);
-        Page<Auction> auctions = auctionRepository.findAll(spec, pageable);
-        return auctions.map(auctionMapper::toDTO);
+        if (!isRanked(searchDTO)) {
+            return auctionRepository.findAll(spec, pageable).map(auctionMapper::toDTO);
+        }
+        
+        List<String> orderedIds = rankMatches(searchDTO, spec);
+        if (orderedIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        if (pageable.getSort().isSorted()) {
+            return auctionRepository.findAll(AuctionSpecifications.idIn(orderedIds), pageable)
+                .map(auctionMapper::toDTO);
+        }
+        return pageInOrder(orderedIds, pageable);
+    }
+    
+    /**
+     * Searches auctions with keyset pagination, so any page costs the same and
+     * no total is counted. Without a sort, ranked searches keep their rank
+     * order and other searches list the newest auctions first.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AuctionDTO> scrollAuctions(AuctionSearchDTO searchDTO, AuctionSort sort, int limit,
+                                                 String cursor) {
+        validateLimit(limit);
+        Specification<Auction> spec = buildSearchSpecification(searchDTO);
+        if (isRanked(searchDTO)) {
+            List<String> orderedIds = rankMatches(searchDTO, spec);
+            if (sort == null) {
+                return scrollInOrder(orderedIds, limit, cursor);
+            }
+            if (orderedIds.isEmpty()) {
+                return CursorPage.<AuctionDTO>builder().items(List.of()).build();
+            }
+            spec = AuctionSpecifications.idIn(orderedIds);
+        }
+        
+        AuctionSort order = sort != null ? sort : AuctionSort.NEWEST;
+        AuctionSort.Position after = cursor != null ? order.decode(cursor) : null;
+        List<Auction> auctions = auctionRepository.findSlice(spec, order, after, limit + 1);
+        boolean hasMore = auctions.size() > limit;
+        if (hasMore) {
+            auctions = auctions.subList(0, limit);
+        }
+        
+        return CursorPage.<AuctionDTO>builder()
+            .items(auctions.stream().map(auctionMapper::toDTO).toList())
+            .nextCursor(hasMore ? order.cursorAfter(auctions.get(auctions.size() - 1)) : null)
+            .hasMore(hasMore)
+            .build();
+    }
+    
+    /**
+     * Counts matching auctions per source, category, status and tag. Price and
+     * location filters are not applied to the counts.
+     */
+    @Transactional(readOnly = true)
+    public Map<Facet, List<FacetCount>> getFacets(AuctionSearchDTO searchDTO) {
+        // The counts leave out each facet's own filter, so they need every text match rather than the ranked top
+        List<String> textMatches = StringUtils.hasText(searchDTO.getQuery()) ? allTextMatches(searchDTO) : null;
+        return catalogFacets.count(searchDTO, textMatches);
+    }
+    
+    private List<String> allTextMatches(AuctionSearchDTO searchDTO) {
+        EmbeddedSearchEngine engine = embeddedSearchEngine.getIfAvailable();
+        if (engine != null && engine.isReady()) {
+            return engine.matching(searchDTO.getQuery());
+        }
+        return auctionRepository.findIds(AuctionSpecifications.matchingText(searchDTO.getQuery()));
+    }
+    
+    /**
+     * The best text matches passing every filter of the search, most relevant
+     * first. Filters are applied before the ranking is cut at the result limit.
+     */
+    private List<String> rankTextMatches(AuctionSearchDTO searchDTO, Specification<Auction> spec) {
+        EmbeddedSearchEngine engine = embeddedSearchEngine.getIfAvailable();
+        if (engine != null && engine.isReady() && !hasUnindexedFilters(searchDTO)) {
+            List<String> rankedIds = engine.search(searchDTO, searchConfiguration.getMaxResults());
+            if (rankedIds.isEmpty()) {
+                return rankedIds;
+            }
+            // The engine trails the database slightly, so confirm its filters there
+            Set<String> matching = new HashSet<>(auctionRepository.findIds(
+                spec.and(AuctionSpecifications.idIn(rankedIds))));
+            return rankedIds.stream().filter(matching::contains).toList();
+        }
+        return auctionRepository.findIdsMatchingText(searchDTO.getQuery().trim(), spec,
+            searchConfiguration.getMaxResults());
+    }
+    
+    /**
+     * Whether the search filters on price or location, which the embedded
+     * engine does not index and so could only apply after its limit.
+     */
+    private boolean hasUnindexedFilters(AuctionSearchDTO searchDTO) {
+        return searchDTO.getMinPrice() != null || searchDTO.getMaxPrice() != null || 
+            StringUtils.hasText(searchDTO.getLocation()) || searchArea(searchDTO) != null;
+    }
+    
+    private boolean isRanked(AuctionSearchDTO searchDTO) {
+        return StringUtils.hasText(searchDTO.getQuery()) || searchDTO.getLatitude() != null;
+    }
+    
+    /**
+     * Matches of a text or proximity search in rank order: nearest first
+     * around a center, otherwise most relevant first.
+     */
+    private List<String> rankMatches(AuctionSearchDTO searchDTO, Specification<Auction> spec) {
+        if (StringUtils.hasText(searchDTO.getQuery())) {
+            List<String> rankedIds = rankTextMatches(searchDTO, spec);
+            if (searchDTO.getLatitude() == null || rankedIds.isEmpty()) {
+                return rankedIds;
+            }
+            spec = spec.and(AuctionSpecifications.idIn(rankedIds));
+        }
+        
+        // The area is only the box around the circle, so the exact radius is applied to its candidates
+        return rankByDistance(searchDTO, spec);
+    }
+    
+    /**
+     * Located matches within the search radius, nearest first. Only the
+     * candidates from the covering geohash cells are measured.
+     */
+    private List<String> rankByDistance(AuctionSearchDTO searchDTO, Specification<Auction> spec) {
+        double latitude = searchDTO.getLatitude();
+        double longitude = searchDTO.getLongitude();
+        double radiusKm = radiusKm(searchDTO);
+        
+        record Candidate(String auctionId, double distanceKm) {
+        }
+        return auctionRepository.findLocations(spec).stream()
+            .map(location -> new Candidate(location.auctionId(), Geohash.distanceKm(latitude, longitude,
+                location.latitude().doubleValue(), location.longitude().doubleValue())))
+            .filter(candidate -> candidate.distanceKm() <= radiusKm)
+            .sorted(Comparator.comparingDouble(Candidate::distanceKm).thenComparing(Candidate::auctionId))
+            .limit(searchConfiguration.getMaxResults())
+            .map(Candidate::auctionId)
+            .toList();
+    }
+    
+    private GeoBox searchArea(AuctionSearchDTO searchDTO) {
+        if (searchDTO.getLatitude() != null || searchDTO.getLongitude() != null) {
+            if (searchDTO.getLatitude() == null || searchDTO.getLongitude() == null) {
+                throw new IllegalArgumentException("Latitude and longitude must be given together");
+            }
+            return GeoBox.around(searchDTO.getLatitude(), searchDTO.getLongitude(), radiusKm(searchDTO));
+        }
+        
+        List<Double> bounds = Arrays.asList(searchDTO.getMinLatitude(), searchDTO.getMinLongitude(),
+            searchDTO.getMaxLatitude(), searchDTO.getMaxLongitude());
+        if (bounds.stream().allMatch(Objects::isNull)) {
+            return null;
+        }
+        if (bounds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("A bounding box needs minimum and maximum latitude and longitude");
+        }
+        return new GeoBox(bounds.get(0), bounds.get(1), bounds.get(2), bounds.get(3));
+    }
+    
+    private double radiusKm(AuctionSearchDTO searchDTO) {
+        SearchConfiguration.Geo geo = searchConfiguration.getGeo();
+        double radiusKm = searchDTO.getRadiusKm() != null ? searchDTO.getRadiusKm() : geo.getDefaultRadiusKm();
+        if (radiusKm <= 0 || radiusKm > geo.getMaxRadiusKm()) {
+            throw new IllegalArgumentException("Radius must be positive and at most " + geo.getMaxRadiusKm() + " km");
+        }
+        return radiusKm;
+    }
+    
+    private Page<AuctionDTO> pageInOrder(List<String> orderedIds, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), orderedIds.size());
+        List<String> pageIds = orderedIds.subList(from, Math.min(from + pageable.getPageSize(), orderedIds.size()));
+        Map<String, Auction> auctions = auctionRepository.findAllById(pageIds).stream()
+            .collect(Collectors.toMap(Auction::getId, Function.identity()));
+        
+        List<AuctionDTO> content = pageIds.stream()
+            .map(auctions::get)
+            .filter(Objects::nonNull)
+            .map(auctionMapper::toDTO)
+            .toList();
+        return new PageImpl<>(content, pageable, orderedIds.size());
+    }
+    
+    /**
+     * Pages through a ranked id list. The ranking is recomputed for every page,
+     * so the cursor holds the rank and id of the last auction returned and the
+     * next page resumes after that id, or after that rank if it dropped out.
+     */
+    private CursorPage<AuctionDTO> scrollInOrder(List<String> orderedIds, int limit, String cursor) {
+        int from = 0;
+        if (cursor != null) {
+            String[] values = CursorCodec.decode(cursor, 2);
+            int position = orderedIds.indexOf(values[1]);
+            try {
+                from = position >= 0 ? position + 1 : Math.min(Integer.parseInt(values[0]) + 1, orderedIds.size());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+        
+        int to = Math.min(from + limit, orderedIds.size());
+        List<String> pageIds = orderedIds.subList(from, to);
+        Map<String, Auction> auctions = auctionRepository.findAllById(pageIds).stream()
+            .collect(Collectors.toMap(Auction::getId, Function.identity()));
+        boolean hasMore = to < orderedIds.size();
+        
+        return CursorPage.<AuctionDTO>builder()
+            .items(pageIds.stream().map(auctions::get).filter(Objects::nonNull).map(auctionMapper::toDTO).toList())
+            .nextCursor(hasMore ? CursorCodec.encode(String.valueOf(to - 1), orderedIds.get(to - 1)) : null)
+            .hasMore(hasMore)
+            .build();
     }
     
     public void activateAuction(String auctionId, String userId) {
@@ -89,46 +363,104 @@ public class AuctionService {
         
         auction.setStatus(Auction.AuctionStatus.ACTIVE);
         auctionRepository.save(auction);
+        auctionTimerService.schedule(auction);
+        auctionCache.evict(auction);
+        searchService.updateAuctionIndex(auction);
         
         historyService.recordHistory(auction, AuctionHistory.ActionType.ACTIVATED, userId, "Auction activated");
         notificationService.notifyAuctionStarted(auction);
     }
     
+    /**
+     * Cancels an auction on its bid sequencer, so no bid is applied after it.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void cancelAuction(String auctionId, String userId, String reason) {
         log.info("Cancelling auction: {} by user: {} with reason: {}", auctionId, userId, reason);
         
-        Auction auction = getAuctionById(auctionId);
-        validateCancellation(auction, userId);
-        
-        auction.setStatus(Auction.AuctionStatus.CANCELLED);
-        auctionRepository.save(auction);
-        
-        historyService.recordHistory(auction, AuctionHistory.ActionType.CANCELLED, userId, reason);
-        notificationService.notifyAuctionCancelled(auction, reason);
+        changeOnSequencer(auctionId, () -> {
+            Auction auction = getAuctionById(auctionId);
+            validateCancellation(auction, userId);
+            
+            auction.setStatus(Auction.AuctionStatus.CANCELLED);
+            auctionRepository.save(auction);
+            auctionTimerService.cancel(auctionId);
+            auctionCache.evict(auction);
+            searchService.updateAuctionIndex(auction);
+            trendingIndex.remove(auctionId);
+            // A finished auction needs no book; a late bid reloads it after draining the journal
+            bidSequencer.evict(auctionId);
+            proxyBiddingService.evict(auctionId);
+            
+            historyService.recordHistory(auction, AuctionHistory.ActionType.CANCELLED, userId, reason);
+            notificationService.notifyAuctionCancelled(auction, reason);
+            return auction;
+        });
     }
     
-    @Scheduled(fixedDelay = 60000) // Run every minute
-    public void processEndingAuctions() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime endingSoon = now.plusMinutes(30);
-        
-        List<Auction> endingSoonAuctions = auctionRepository.findByStatusAndEndTimeBetween(
-            Auction.AuctionStatus.ACTIVE, now, endingSoon
-        );
-        
-        endingSoonAuctions.forEach(auction -> {
-            if (auction.getStatus() != Auction.AuctionStatus.ENDING_SOON) {
-                auction.setStatus(Auction.AuctionStatus.ENDING_SOON);
-                auctionRepository.save(auction);
-                notificationService.notifyAuctionEndingSoon(auction);
+    /**
+     * Moves an active auction into its final stretch. Called by the auction timer.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void markEndingSoon(String auctionId) {
+        changeOnSequencer(auctionId, () -> {
+            Auction auction = getAuctionById(auctionId);
+            if (auction.getStatus() != Auction.AuctionStatus.ACTIVE) {
+                return auction;
+            }
+            
+            auction.setStatus(Auction.AuctionStatus.ENDING_SOON);
+            auctionRepository.save(auction);
+            auctionCache.evict(auction);
+            searchService.updateAuctionIndex(auction);
+            notificationService.notifyAuctionEndingSoon(auction);
+            return auction;
+        });
+    }
+    
+    /**
+     * Ends or auto-extends a live auction whose end time has passed. Called by the auction timer.
+     * <p>
+     * Last-second journaled bids count towards the extension and the winner,
+     * and no bid is applied to the auction after it ended.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void endAuction(String auctionId) {
+        changeOnSequencer(auctionId, () -> endAuctionIfDue(auctionId));
+    }
+    
+    /**
+     * Changes an auction in a transaction on its bid sequencer, after draining
+     * the bid journal, and refreshes the auction book from the result. The
+     * change then sees every acknowledged bid, and the book never has to be
+     * rebuilt from a row that lacks them.
+     */
+    private void changeOnSequencer(String auctionId, Supplier<Auction> change) {
+        bidSequencer.execute(auctionId, book -> {
+            if (bidJournal.isEnabled()) {
+                bidJournalDrainer.drain();
             }
+            Auction auction = transactionTemplate.execute(status -> change.get());
+            book.sync(auction);
+            return auction;
         });
+    }
+    
+    private Auction endAuctionIfDue(String auctionId) {
+        Auction auction = getAuctionById(auctionId);
+        if (auction.getStatus() != Auction.AuctionStatus.ACTIVE && 
+            auction.getStatus() != Auction.AuctionStatus.ENDING_SOON) {
+            return auction;
+        }
         
-        List<Auction> endedAuctions = auctionRepository.findByStatusAndEndTimeBefore(
-            Auction.AuctionStatus.ACTIVE, now
-        );
+        if (auction.getEndTime().isAfter(LocalDateTime.now())) {
+            // The end time moved after this timer was armed
+            auctionTimerService.schedule(auction);
+            return auction;
+        }
         
-        endedAuctions.forEach(this::endAuction);
+        endAuction(auction);
+        return auction;
     }
     
     private void endAuction(Auction auction) {
@@ -145,6 +477,11 @@ public class AuctionService {
         determineWinner(auction);
         
         auctionRepository.save(auction);
+        bidSequencer.evict(auction.getId());
+        proxyBiddingService.evict(auction.getId());
+        auctionCache.evict(auction);
+        searchService.updateAuctionIndex(auction);
+        trendingIndex.remove(auction.getId());
         
         historyService.recordHistory(auction, AuctionHistory.ActionType.ENDED, "SYSTEM", "Auction ended");
         notificationService.notifyAuctionEnded(auction);
@@ -155,10 +492,10 @@ public class AuctionService {
             return false;
         }
         
-        LocalDateTime lastBidTime = auction.getBids().isEmpty() ? 
-            auction.getStartTime() : 
-            auction.getBids().get(0).getBidTime();
-            
+        LocalDateTime lastBidTime = auction.getLastBidTime() != null ? 
+            auction.getLastBidTime() : 
+            auction.getStartTime();
+        
         LocalDateTime extensionThreshold = auction.getEndTime().minusMinutes(auction.getAutoExtendMinutes());
         
         return lastBidTime.isAfter(extensionThreshold);
@@ -167,6 +504,10 @@ public class AuctionService {
     private void extendAuction(Auction auction) {
         LocalDateTime newEndTime = auction.getEndTime().plusMinutes(auction.getAutoExtendMinutes());
         auction.setEndTime(newEndTime);
+        auctionRepository.save(auction);
+        auctionTimerService.schedule(auction);
+        auctionCache.evict(auction);
+        searchService.updateAuctionIndex(auction);
         
         log.info("Extended auction {} end time to {}", auction.getId(), newEndTime);
         
@@ -176,9 +517,12 @@ public class AuctionService {
     }
     
     private void determineWinner(Auction auction) {
-        auction.getBids().stream()
+        if (auction.getLeadingBidId() == null) {
+            return;
+        }
+        
+        bidRepository.findById(auction.getLeadingBidId())
             .filter(bid -> bid.getStatus() == Bid.BidStatus.ACCEPTED)
-            .findFirst()
             .ifPresent(winningBid -> {
                 auction.setWinnerId(winningBid.getBidderId());
                 auction.setWinningBid(winningBid.getAmount());
@@ -189,14 +533,24 @@ public class AuctionService {
             });
     }
     
+    private AuctionDTO getCachedAuction(String auctionId) {
+        // Only a cache miss opens a transaction
+        return auctionCache.get(auctionId, () -> transactionTemplate.execute(status -> {
+            Auction auction = getAuctionById(auctionId);
+            return new CachedAuction(auction.getVersion(), auctionMapper.toDTO(auction));
+        }));
+    }
+    
     private Auction getAuctionById(String auctionId) {
         return auctionRepository.findById(auctionId)
             .orElseThrow(() -> new AuctionNotFoundException("Auction not found: " + auctionId));
     }
     
-    private void incrementViewCount(Auction auction) {
-        auction.setViewCount(auction.getViewCount() + 1);
-        auctionRepository.save(auction);
+    private void validateLimit(int limit) {
+        int max = searchConfiguration.getMaxPageSize();
+        if (limit < 1 || limit > max) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + max);
+        }
     }
     
     private void validateAuction(Auction auction) {
@@ -252,32 +606,61 @@ public class AuctionService {
         }
     }
     
+    private boolean isLive(AuctionDTO auction) {
+        return auction.getStatus() == Auction.AuctionStatus.ACTIVE || 
+            auction.getStatus() == Auction.AuctionStatus.ENDING_SOON;
+    }
+    
     private boolean isAdmin(String userId) {
         // TODO: Implement admin check
         return false;
     }
     
     private Specification<Auction> buildSearchSpecification(AuctionSearchDTO searchDTO) {
-        // TODO: Implement search specification builder
-        return Specification.where(null);
+        return AuctionSpecifications.fromSearch(searchDTO)
+            .and(AuctionSpecifications.withinArea(searchArea(searchDTO)));
     }
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<AuctionDTO> getTrendingAuctions(int limit) {
-        List<Auction> auctions = auctionRepository.findTrendingAuctions(Auction.AuctionStatus.ACTIVE)
-            .stream()
+        // Over-fetch a little in case an auction ended since it was last ranked
+        return trendingIndex.top(limit * 2).stream()
+            .map(this::getCachedAuction)
+            .filter(this::isLive)
             .limit(limit)
             .toList();
-        return auctions.stream().map(auctionMapper::toDTO).toList();
     }
     
-    public List<AuctionDTO> getEndingSoonAuctions(int limit) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CursorPage<AuctionDTO> getEndingSoonAuctions(int limit, String cursor) {
+        validateLimit(limit);
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime endingSoon = now.plusHours(24);
+        EndTimeIndex.Position after = null;
+        if (cursor != null) {
+            String[] values = CursorCodec.decode(cursor, 2);
+            try {
+                after = new EndTimeIndex.Position(LocalDateTime.parse(values[0]), values[1]);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
         
-        List<Auction> auctions = auctionRepository.findByStatusAndEndTimeBetween(
-            Auction.AuctionStatus.ACTIVE, now, endingSoon
-        ).stream().limit(limit).toList();
+        List<AuctionDeadline> deadlines = endTimeIndex.page(now, now.plusHours(24), after, limit + 1);
+        boolean hasMore = deadlines.size() > limit;
+        if (hasMore) {
+            deadlines = deadlines.subList(0, limit);
+        }
+        
+        String nextCursor = null;
+        if (hasMore) {
+            AuctionDeadline last = deadlines.get(deadlines.size() - 1);
+            nextCursor = CursorCodec.encode(last.endTime().toString(), last.auctionId());
+        }
         
-        return auctions.stream().map(auctionMapper::toDTO).toList();
+        return CursorPage.<AuctionDTO>builder()
+            .items(deadlines.stream().map(deadline -> getCachedAuction(deadline.auctionId())).toList())
+            .nextCursor(nextCursor)
+            .hasMore(hasMore)
+            .build();
     }
-}
\ No newline at end of file
+}
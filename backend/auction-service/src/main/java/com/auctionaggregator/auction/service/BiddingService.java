@@ -1,25 +1,47 @@
 package com.auctionaggregator.auction.service;
 
+import com.auctionaggregator.auction.bidding.AuctionBook;
+import com.auctionaggregator.auction.bidding.AuctionBookSequencer;
+import com.auctionaggregator.auction.bidding.BidJournal;
+import com.auctionaggregator.auction.bidding.BidJournalDrainer;
+import com.auctionaggregator.auction.bidding.JournaledBid;
+import com.auctionaggregator.auction.bidding.StripedLockPool;
+import com.auctionaggregator.auction.cache.AuctionCache;
+import com.auctionaggregator.auction.config.BiddingConfiguration;
 import com.auctionaggregator.auction.dto.BidDTO;
+import com.auctionaggregator.auction.dto.CursorPage;
 import com.auctionaggregator.auction.dto.PlaceBidDTO;
 import com.auctionaggregator.auction.entity.Auction;
 import com.auctionaggregator.auction.entity.Bid;
 import com.auctionaggregator.auction.exception.BidException;
 import com.auctionaggregator.auction.mapper.BidMapper;
+import com.auctionaggregator.auction.pagination.CursorCodec;
 import com.auctionaggregator.auction.repository.AuctionRepository;
 import com.auctionaggregator.auction.repository.BidRepository;
+import com.auctionaggregator.auction.timer.AuctionTimerService;
+import com.auctionaggregator.auction.trending.TrendingIndex;
 import com.auctionaggregator.auction.websocket.BidWebSocketHandler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @RequiredArgsConstructor
@@ -34,23 +56,150 @@ public class BiddingService {
     private final AuctionNotificationService notificationService;
     private final BidValidationService validationService;
     private final ProxyBiddingService proxyBiddingService;
+    private final AuctionBookSequencer bidSequencer;
+    private final StripedLockPool auctionLocks;
+    private final BidJournal bidJournal;
+    private final BidJournalDrainer bidJournalDrainer;
+    private final BiddingConfiguration biddingConfiguration;
+    private final TransactionTemplate transactionTemplate;
+    private final AuctionCache auctionCache;
+    private final AuctionSearchService searchService;
+    private final TrendingIndex trendingIndex;
+    private final AuctionTimerService auctionTimerService;
     
-    private final ConcurrentHashMap<String, Lock> auctionLocks = new ConcurrentHashMap<>();
-    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BidDTO placeBid(PlaceBidDTO placeBidDTO, String bidderId, String ipAddress, String userAgent) {
-        String auctionId = placeBidDTO.getAuctionId();
-        Lock lock = auctionLocks.computeIfAbsent(auctionId, k -> new ReentrantLock());
+        return switch (biddingConfiguration.getMode()) {
+            case LOCKED -> placeLockedBid(placeBidDTO, bidderId, ipAddress, userAgent);
+            case SEQUENCED -> placeSequencedBid(placeBidDTO, bidderId, ipAddress, userAgent);
+            case OPTIMISTIC -> placeOptimisticBid(placeBidDTO, bidderId, ipAddress, userAgent);
+        };
+    }
+    
+    private BidDTO placeLockedBid(PlaceBidDTO placeBidDTO, String bidderId, String ipAddress, String userAgent) {
+        // The transaction commits before the lock is released, so the next bidder sees this price
+        return auctionLocks.withLock(placeBidDTO.getAuctionId(), () -> 
+            transactionTemplate.execute(status -> 
+                bidMapper.toDTO(processBid(placeBidDTO, bidderId, ipAddress, userAgent))));
+    }
+    
+    private BidDTO placeSequencedBid(PlaceBidDTO placeBidDTO, String bidderId, String ipAddress, String userAgent) {
+        AcceptedBid accepted = bidSequencer.execute(placeBidDTO.getAuctionId(), book -> {
+            // Reject against the in-memory book first; only plausible bids reach the database
+            book.validate(bidderId, placeBidDTO.getAmount(), LocalDateTime.now());
+            
+            if (bidJournal.isEnabled()) {
+                if (book.isPlainBid(placeBidDTO.getAmount(), placeBidDTO.getMaxAmount()) 
+                    && !proxyBiddingService.hasCompetingProxy(book.getAuctionId(), bidderId, placeBidDTO.getAmount())) {
+                    // The book does not know about bidders, so check them as processBid does
+                    transactionTemplate.executeWithoutResult(status -> validateBidder(
+                        auctionRepository.getReferenceById(book.getAuctionId()), bidderId, placeBidDTO.getAmount()));
+                    return journalBid(book, placeBidDTO, bidderId, ipAddress, userAgent);
+                }
+                // Proxy and buy-now bids need the database to have seen every journaled bid
+                bidJournalDrainer.drain();
+            }
+            
+            Bid bid = transactionTemplate.execute(status -> 
+                processBid(placeBidDTO, bidderId, ipAddress, userAgent));
+            
+            book.sync(bid.getAuction());
+            return new AcceptedBid(bid, null);
+        });
+        
+        if (accepted.durable() != null) {
+            awaitDurable(accepted.durable());
+            notifyBidPlaced(accepted.bid().getAuction(), accepted.bid());
+        }
+        return bidMapper.toDTO(accepted.bid());
+    }
+    
+    private AcceptedBid journalBid(AuctionBook book, PlaceBidDTO placeBidDTO, String bidderId, 
+                                   String ipAddress, String userAgent) {
+        Auction auction = auctionRepository.getReferenceById(book.getAuctionId());
+        Bid bid = createBid(auction, placeBidDTO, bidderId, ipAddress, userAgent);
+        bid.setId(UUID.randomUUID().toString());
         
-        lock.lock();
+        CompletableFuture<Void> durable = bidJournal.append(JournaledBid.from(bid));
+        book.accept(bid.getId(), bid.getAmount());
+        return new AcceptedBid(bid, durable);
+    }
+    
+    private void awaitDurable(CompletableFuture<Void> durable) {
+        try {
+            durable.get(biddingConfiguration.getJournal().getAckTimeout(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // The bid is in the journal and will still be persisted, but it was not confirmed durable
+            throw new BidException("Bid could not be confirmed, please check your bids before retrying", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BidException("Bid processing interrupted", e);
+        }
+    }
+    
+    private BidDTO placeOptimisticBid(PlaceBidDTO placeBidDTO, String bidderId, String ipAddress, String userAgent) {
+        int maxAttempts = biddingConfiguration.getOptimisticMaxAttempts();
+        
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> 
+                    bidMapper.toDTO(processOptimisticBid(placeBidDTO, bidderId, ipAddress, userAgent)));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up on bid for auction: {} after {} conflicting attempts", 
+                        placeBidDTO.getAuctionId(), attempt);
+                    throw new BidException("Auction is busy, please retry", e);
+                }
+                log.debug("Bid conflict on auction: {} attempt: {}", placeBidDTO.getAuctionId(), attempt);
+                backoff(attempt);
+            }
+        }
+    }
+    
+    private Bid processOptimisticBid(PlaceBidDTO placeBidDTO, String bidderId, String ipAddress, String userAgent) {
+        Auction auction = auctionRepository.findById(placeBidDTO.getAuctionId())
+            .orElseThrow(() -> new BidException("Auction not found"));
+        
+        validateBid(auction, placeBidDTO, bidderId);
+        
+        Bid bid = bidRepository.save(createBid(auction, placeBidDTO, bidderId, ipAddress, userAgent));
+        
+        // Claims the new price only if nobody has bid since the auction was read
+        int updated = auctionRepository.compareAndSetCurrentPrice(
+            auction.getId(), auction.getVersion(), bid.getAmount(), LocalDateTime.now());
+        if (updated == 0) {
+            throw new ObjectOptimisticLockingFailureException(Auction.class, auction.getId());
+        }
+        
+        // The conditional update cleared the persistence context, so continue on fresh rows
+        auction = auctionRepository.findById(auction.getId())
+            .orElseThrow(() -> new BidException("Auction not found"));
+        bid = bidRepository.findById(bid.getId())
+            .orElseThrow(() -> new BidException("Bid not found"));
+        
+        updateAuctionState(auction, bid);
+        
+        Optional<Bid> autoBid = processProxyBids(auction, bid);
+        
+        notifyBidPlaced(auction, bid);
+        autoBid.ifPresent(proxyBid -> notifyBidPlaced(auction, proxyBid));
+        
+        return bid;
+    }
+    
+    private void backoff(int attempt) {
+        long ceiling = Math.min(
+            biddingConfiguration.getOptimisticMaxBackoff(),
+            biddingConfiguration.getOptimisticBackoff() << (attempt - 1));
         try {
-            return processBid(placeBidDTO, bidderId, ipAddress, userAgent);
-        } finally {
-            lock.unlock();
-            auctionLocks.remove(auctionId);
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BidException("Bid processing interrupted", e);
         }
     }
     
-    private BidDTO processBid(PlaceBidDTO placeBidDTO, String bidderId, String ipAddress, String userAgent) {
+    private Bid processBid(PlaceBidDTO placeBidDTO, String bidderId, String ipAddress, String userAgent) {
         log.info("Processing bid for auction: {} by bidder: {} amount: {}", 
             placeBidDTO.getAuctionId(), bidderId, placeBidDTO.getAmount());
         
@@ -59,17 +208,16 @@ public class BiddingService {
         
         validateBid(auction, placeBidDTO, bidderId);
         
-        Bid bid = createBid(auction, placeBidDTO, bidderId, ipAddress, userAgent);
+        Bid bid = bidRepository.save(createBid(auction, placeBidDTO, bidderId, ipAddress, userAgent));
         
         updateAuctionState(auction, bid);
         
-        bid = bidRepository.save(bid);
-        
-        processProxyBids(auction, bid);
+        Optional<Bid> autoBid = processProxyBids(auction, bid);
         
         notifyBidPlaced(auction, bid);
+        autoBid.ifPresent(proxyBid -> notifyBidPlaced(auction, proxyBid));
         
-        return bidMapper.toDTO(bid);
+        return bid;
     }
     
     private void validateBid(Auction auction, PlaceBidDTO placeBidDTO, String bidderId) {
@@ -91,8 +239,12 @@ public class BiddingService {
             throw new BidException("Bid amount must be at least " + minimumBid);
         }
         
+        validateBidder(auction, bidderId, placeBidDTO.getAmount());
+    }
+    
+    private void validateBidder(Auction auction, String bidderId, BigDecimal amount) {
         validationService.validateBidderEligibility(bidderId, auction);
-        validationService.validateBidLimits(bidderId, auction, placeBidDTO.getAmount());
+        validationService.validateBidLimits(bidderId, auction, amount);
     }
     
     private BigDecimal calculateMinimumBid(Auction auction) {
@@ -135,23 +287,30 @@ public class BiddingService {
     
     private void updateAuctionState(Auction auction, Bid bid) {
         auction.setCurrentPrice(bid.getAmount());
+        auction.setBidCount(auction.getBidCount() + 1);
+        auction.setLastBidTime(bid.getBidTime());
         
         outbidPreviousBids(auction, bid);
         
-        if (bid.getAmount().compareTo(auction.getBuyNowPrice()) >= 0 && 
-            auction.getBuyNowPrice() != null) {
+        if (auction.getBuyNowPrice() != null && 
+            bid.getAmount().compareTo(auction.getBuyNowPrice()) >= 0) {
             endAuctionWithBuyNow(auction, bid);
         }
+        
+        auctionCache.evict(auction);
+        searchService.updateAuctionIndex(auction);
     }
     
     private void outbidPreviousBids(Auction auction, Bid newBid) {
-        auction.getBids().stream()
-            .filter(bid -> bid.getStatus() == Bid.BidStatus.ACCEPTED)
-            .filter(bid -> !bid.getId().equals(newBid.getId()))
-            .forEach(bid -> {
-                bid.setStatus(Bid.BidStatus.OUTBID);
-                bid.setIsWinningBid(false);
+        // Only the current leader can be in ACCEPTED state, so it is the only bid to demote
+        String previousLeaderId = auction.getLeadingBidId();
+        if (previousLeaderId != null && !previousLeaderId.equals(newBid.getId())) {
+            bidRepository.findById(previousLeaderId).ifPresent(previousLeader -> {
+                previousLeader.setStatus(Bid.BidStatus.OUTBID);
+                previousLeader.setIsWinningBid(false);
             });
+        }
+        auction.setLeadingBidId(newBid.getId());
     }
     
     private void endAuctionWithBuyNow(Auction auction, Bid bid) {
@@ -163,38 +322,99 @@ public class BiddingService {
         bid.setStatus(Bid.BidStatus.WINNING);
         bid.setIsWinningBid(true);
         bid.setBidType(Bid.BidType.BUY_NOW);
+        
+        auctionTimerService.cancel(auction.getId());
+        trendingIndex.remove(auction.getId());
     }
     
-    private void processProxyBids(Auction auction, Bid newBid) {
+    private Optional<Bid> processProxyBids(Auction auction, Bid newBid) {
         if (newBid.getMaxAmount() != null) {
             proxyBiddingService.registerProxyBid(auction, newBid);
         }
         
-        proxyBiddingService.processProxyBidsForAuction(auction.getId());
+        if (auction.getStatus() == Auction.AuctionStatus.ENDED) {
+            return Optional.empty();
+        }
+        
+        Optional<Bid> autoBid = proxyBiddingService.processProxyBidsForAuction(auction, newBid);
+        autoBid.ifPresent(proxyBid -> updateAuctionState(auction, proxyBid));
+        return autoBid;
     }
     
     private void notifyBidPlaced(Auction auction, Bid bid) {
+        trendingIndex.recordBid(auction.getId());
         webSocketHandler.broadcastBidUpdate(auction.getId(), bid);
         notificationService.notifyBidPlaced(auction, bid);
         notificationService.notifyOutbidUsers(auction, bid);
     }
     
-    public List<BidDTO> getAuctionBids(String auctionId, int limit) {
-        List<Bid> bids = bidRepository.findTopByAuctionIdOrderByBidTimeDesc(auctionId, limit);
-        return bidMapper.toDTOList(bids);
+    @Transactional(readOnly = true)
+    public CursorPage<BidDTO> getAuctionBids(String auctionId, int limit, String cursor) {
+        validateLimit(limit);
+        Limit page = Limit.of(limit + 1);
+        List<Bid> bids;
+        if (cursor == null) {
+            bids = bidRepository.findLatestByAuctionId(auctionId, page);
+        } else {
+            String[] values = CursorCodec.decode(cursor, 2);
+            bids = bidRepository.findLatestByAuctionIdBefore(auctionId, parseBidTime(values[0]), values[1], page);
+        }
+        return toCursorPage(bids, limit);
     }
     
-    public List<BidDTO> getUserBids(String userId, Bid.BidStatus status) {
+    @Transactional(readOnly = true)
+    public CursorPage<BidDTO> getUserBids(String userId, Bid.BidStatus status, int limit, String cursor) {
+        validateLimit(limit);
+        Limit page = Limit.of(limit + 1);
         List<Bid> bids;
-        if (status != null) {
-            bids = bidRepository.findByBidderIdAndStatus(userId, status);
+        if (cursor == null) {
+            bids = bidRepository.findLatestByBidderId(userId, status, page);
         } else {
-            bids = bidRepository.findByBidderId(userId);
+            String[] values = CursorCodec.decode(cursor, 2);
+            bids = bidRepository.findLatestByBidderIdBefore(userId, status, parseBidTime(values[0]), values[1], page);
+        }
+        return toCursorPage(bids, limit);
+    }
+    
+    private CursorPage<BidDTO> toCursorPage(List<Bid> bids, int limit) {
+        boolean hasMore = bids.size() > limit;
+        if (hasMore) {
+            bids = bids.subList(0, limit);
+        }
+        
+        String nextCursor = null;
+        if (hasMore) {
+            Bid last = bids.get(bids.size() - 1);
+            nextCursor = CursorCodec.encode(last.getBidTime().toString(), last.getId());
+        }
+        
+        return CursorPage.<BidDTO>builder()
+            .items(bidMapper.toDTOList(bids))
+            .nextCursor(nextCursor)
+            .hasMore(hasMore)
+            .build();
+    }
+    
+    private void validateLimit(int limit) {
+        int max = biddingConfiguration.getMaxHistoryPageSize();
+        if (limit < 1 || limit > max) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + max);
+        }
+    }
+    
+    private LocalDateTime parseBidTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
         }
-        return bidMapper.toDTOList(bids);
     }
     
     public void cancelBid(String bidId, String userId, String reason) {
+        if (bidJournal.isEnabled()) {
+            bidJournalDrainer.drain();
+        }
+        
         Bid bid = bidRepository.findById(bidId)
             .orElseThrow(() -> new BidException("Bid not found"));
         
@@ -216,26 +436,50 @@ public class BiddingService {
         
         bidRepository.save(bid);
         
-        recalculateAuctionPrice(bid.getAuction());
+        recalculateAuctionPrice(bid.getAuction(), bid);
+        bidSequencer.evict(bid.getAuction().getId());
+        proxyBiddingService.evict(bid.getAuction().getId());
+        auctionCache.evict(bid.getAuction());
+        searchService.updateAuctionIndex(bid.getAuction());
         
         notificationService.notifyBidCancelled(bid.getAuction(), bid);
     }
     
-    private void recalculateAuctionPrice(Auction auction) {
-        bidRepository.findTopByAuctionIdAndStatusOrderByAmountDesc(
-            auction.getId(), Bid.BidStatus.ACCEPTED
+    private void recalculateAuctionPrice(Auction auction, Bid cancelledBid) {
+        if (!cancelledBid.getId().equals(auction.getLeadingBidId())) {
+            return;
+        }
+        
+        // The leader is gone; the best remaining bid takes over
+        bidRepository.findTopByAuctionIdAndStatusInOrderByAmountDescBidTimeAsc(
+            auction.getId(), List.of(Bid.BidStatus.ACCEPTED, Bid.BidStatus.OUTBID)
         ).ifPresentOrElse(
-            highestBid -> auction.setCurrentPrice(highestBid.getAmount()),
-            () -> auction.setCurrentPrice(auction.getStartingPrice())
+            nextBid -> {
+                nextBid.setStatus(Bid.BidStatus.ACCEPTED);
+                auction.setCurrentPrice(nextBid.getAmount());
+                auction.setLeadingBidId(nextBid.getId());
+            },
+            () -> {
+                auction.setCurrentPrice(auction.getStartingPrice());
+                auction.setLeadingBidId(null);
+            }
         );
         
         auctionRepository.save(auction);
     }
     
     public BigDecimal getNextMinimumBid(String auctionId) {
+        if (biddingConfiguration.getMode() == BiddingConfiguration.BidExecutionMode.SEQUENCED) {
+            // The book is ahead of the database while journaled bids are still draining
+            return bidSequencer.execute(auctionId, AuctionBook::getMinimumBid);
+        }
+        
         Auction auction = auctionRepository.findById(auctionId)
             .orElseThrow(() -> new BidException("Auction not found"));
         
         return calculateMinimumBid(auction);
     }
+    
+    private record AcceptedBid(Bid bid, CompletableFuture<Void> durable) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+package com.auctionaggregator.auction.service;
+
+import com.auctionaggregator.auction.config.BiddingConfiguration;
+import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.entity.Bid;
+import com.auctionaggregator.auction.repository.BidRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves proxy (maximum) bids against each other.
+ * <p>
+ * Each auction keeps a max-heap of proxy ceilings ordered by amount and then
+ * by registration time, so the earliest of two equal ceilings wins. A bidding
+ * war between proxies is settled in one step: the strongest proxy bids just
+ * enough to beat the runner-up and only that final auto-bid is recorded.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProxyBiddingService {
+    
+    private static final List<Bid.BidStatus> LIVE_STATUSES = List.of(Bid.BidStatus.ACCEPTED, Bid.BidStatus.OUTBID);
+    
+    private final BidRepository bidRepository;
+    private final BiddingConfiguration biddingConfiguration;
+    
+    private final Map<String, ProxyBook> proxyBooks = new ConcurrentHashMap<>();
+    
+    public void registerProxyBid(Auction auction, Bid bid) {
+        ProxyBook book = getProxyBook(auction.getId());
+        book.register(new ProxyCeiling(bid.getId(), bid.getBidderId(), bid.getMaxAmount(),
+            bid.getBidTime(), bid.getSource()));
+    }
+    
+    /**
+     * Lets the strongest proxy respond to the current leading bid.
+     *
+     * @param auction the auction, with its current price already reflecting the leading bid
+     * @param leadingBid the bid that currently leads the auction
+     * @return the auto-bid placed on behalf of the strongest proxy, if it had to bid
+     */
+    public Optional<Bid> processProxyBidsForAuction(Auction auction, Bid leadingBid) {
+        ProxyBook book = getProxyBook(auction.getId());
+        
+        ProxyCeiling[] contenders = book.topTwo();
+        ProxyCeiling top = contenders[0];
+        ProxyCeiling runnerUp = contenders[1];
+        if (top == null) {
+            return Optional.empty();
+        }
+        
+        BigDecimal currentPrice = auction.getCurrentPrice();
+        BigDecimal increment = auction.getBidIncrement();
+        BigDecimal newPrice;
+        
+        if (top.bidderId().equals(leadingBid.getBidderId())) {
+            // The leader only has to move if another proxy can still outbid the current price
+            if (runnerUp == null || runnerUp.maxAmount().compareTo(currentPrice) <= 0) {
+                return Optional.empty();
+            }
+            newPrice = top.maxAmount().min(runnerUp.maxAmount().add(increment));
+        } else {
+            if (top.maxAmount().compareTo(currentPrice.add(increment)) < 0) {
+                return Optional.empty();
+            }
+            BigDecimal competing = runnerUp != null ? currentPrice.max(runnerUp.maxAmount()) : currentPrice;
+            newPrice = top.maxAmount().min(competing.add(increment));
+        }
+        
+        if (newPrice.compareTo(currentPrice) <= 0) {
+            return Optional.empty();
+        }
+        
+        Bid autoBid = Bid.builder()
+            .auction(auction)
+            .bidderId(top.bidderId())
+            .amount(newPrice)
+            .maxAmount(top.maxAmount())
+            .bidType(Bid.BidType.AUTOBID)
+            .status(Bid.BidStatus.ACCEPTED)
+            .bidTime(LocalDateTime.now())
+            .isProxyBid(true)
+            .parentBidId(top.bidId())
+            .source(top.source())
+            .build();
+        
+        log.info("Proxy bid {} raised auction {} to {} for bidder {}",
+            top.bidId(), auction.getId(), newPrice, top.bidderId());
+        return Optional.of(bidRepository.save(autoBid));
+    }
+    
+    /**
+     * Whether a proxy held by someone else would answer a bid of this amount.
+     */
+    public boolean hasCompetingProxy(String auctionId, String bidderId, BigDecimal amount) {
+        ProxyCeiling[] contenders = getProxyBook(auctionId).topTwo();
+        for (ProxyCeiling contender : contenders) {
+            if (contender != null && !contender.bidderId().equals(bidderId) 
+                && contender.maxAmount().compareTo(amount) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public void evict(String auctionId) {
+        proxyBooks.remove(auctionId);
+    }
+    
+    private ProxyBook getProxyBook(String auctionId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A rolled back bid must not leave its ceiling behind
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        evict(auctionId);
+                    }
+                }
+            });
+        }
+        
+        // Another replica may have changed the ceilings, so optimistic mode always reloads
+        if (biddingConfiguration.getMode() == BiddingConfiguration.BidExecutionMode.OPTIMISTIC) {
+            return loadProxyBook(auctionId);
+        }
+        return proxyBooks.computeIfAbsent(auctionId, this::loadProxyBook);
+    }
+    
+    private ProxyBook loadProxyBook(String auctionId) {
+        ProxyBook book = new ProxyBook();
+        bidRepository.findProxyBids(auctionId, LIVE_STATUSES).forEach(bid ->
+            book.register(new ProxyCeiling(bid.getId(), bid.getBidderId(), bid.getMaxAmount(),
+                bid.getBidTime(), bid.getSource())));
+        return book;
+    }
+    
+    private record ProxyCeiling(String bidId, String bidderId, BigDecimal maxAmount,
+                                LocalDateTime registeredAt, Bid.BidSource source) {
+    }
+    
+    /**
+     * Heap of ceilings with at most one live entry per bidder. Superseded
+     * entries stay in the heap and are discarded lazily when they surface.
+     */
+    private static class ProxyBook {
+        
+        private static final Comparator<ProxyCeiling> STRONGEST_FIRST = Comparator
+            .comparing(ProxyCeiling::maxAmount, Comparator.reverseOrder())
+            .thenComparing(ProxyCeiling::registeredAt);
+        
+        private final PriorityQueue<ProxyCeiling> heap = new PriorityQueue<>(STRONGEST_FIRST);
+        private final Map<String, ProxyCeiling> byBidder = new HashMap<>();
+        
+        synchronized void register(ProxyCeiling ceiling) {
+            ProxyCeiling existing = byBidder.get(ceiling.bidderId());
+            if (existing != null && STRONGEST_FIRST.compare(existing, ceiling) <= 0) {
+                return;
+            }
+            byBidder.put(ceiling.bidderId(), ceiling);
+            heap.add(ceiling);
+        }
+        
+        synchronized ProxyCeiling[] topTwo() {
+            ProxyCeiling first = pollLive();
+            ProxyCeiling second = pollLive();
+            if (second != null) {
+                heap.add(second);
+            }
+            if (first != null) {
+                heap.add(first);
+            }
+            return new ProxyCeiling[] {first, second};
+        }
+        
+        private ProxyCeiling pollLive() {
+            ProxyCeiling ceiling;
+            while ((ceiling = heap.poll()) != null) {
+                if (byBidder.get(ceiling.bidderId()) == ceiling) {
+                    return ceiling;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.auctionaggregator.auction.service;
+
+import com.auctionaggregator.auction.cache.AuctionCache;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates auction page views in memory and writes them in periodic batches.
+ * <p>
+ * Views only touch a per-auction {@link LongAdder}, so the read path never
+ * writes a row. The flush adds the deltas with a plain SQL increment that
+ * leaves the entity version alone and therefore never conflicts with bids.
+ * Flushed auctions are evicted from the {@link AuctionCache}, whose view
+ * count would otherwise lag behind once the pending views are reset.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ViewCountBuffer {
+    
+    private static final String INCREMENT_VIEWS_SQL =
+        "UPDATE auctions SET view_count = view_count + ? WHERE id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final AuctionCache auctionCache;
+    
+    private final Map<String, LongAdder> pendingViews = new ConcurrentHashMap<>();
+    
+    public void recordView(String auctionId) {
+        pendingViews.computeIfAbsent(auctionId, id -> new LongAdder()).increment();
+    }
+    
+    /**
+     * @return views recorded for the auction that have not been flushed yet
+     */
+    public long getPendingViews(String auctionId) {
+        LongAdder views = pendingViews.get(auctionId);
+        return views != null ? views.sum() : 0;
+    }
+    
+    @Scheduled(fixedDelayString = "${auction.views.flush-interval:5000}")
+    public synchronized void flush() {
+        List<ViewDelta> deltas = new ArrayList<>();
+        pendingViews.forEach((auctionId, views) -> {
+            // The adder stays in the map, so a view racing with the flush lands in the next one
+            long count = views.sumThenReset();
+            if (count > 0) {
+                deltas.add(new ViewDelta(auctionId, count));
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        
+        try {
+            jdbcTemplate.batchUpdate(INCREMENT_VIEWS_SQL, deltas, deltas.size(), (ps, delta) -> {
+                ps.setLong(1, delta.count());
+                ps.setString(2, delta.auctionId());
+            });
+            log.debug("Flushed view counts for {} auctions", deltas.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush view counts, keeping {} deltas for the next attempt", deltas.size(), e);
+            deltas.forEach(delta ->
+                pendingViews.computeIfAbsent(delta.auctionId(), id -> new LongAdder()).add(delta.count()));
+            return;
+        }
+        deltas.forEach(delta -> auctionCache.evict(delta.auctionId()));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+    
+    private record ViewDelta(String auctionId, long count) {
+    }
+}
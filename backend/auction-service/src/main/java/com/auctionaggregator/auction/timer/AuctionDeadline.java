@@ -0,0 +1,15 @@
+package com.auctionaggregator.auction.timer;
+
+import com.auctionaggregator.auction.entity.Auction;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns the timer needs from a live auction, read without loading the entity.
+ */
+public record AuctionDeadline(String auctionId, Auction.AuctionStatus status, LocalDateTime endTime) {
+    
+    public static AuctionDeadline from(Auction auction) {
+        return new AuctionDeadline(auction.getId(), auction.getStatus(), auction.getEndTime());
+    }
+}
@@ -0,0 +1,274 @@
+package com.auctionaggregator.auction.timer;
+
+import com.auctionaggregator.auction.cluster.ClusterMembership;
+import com.auctionaggregator.auction.cluster.MembershipChangedEvent;
+import com.auctionaggregator.auction.config.AuctionTimerConfiguration;
+import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.repository.AuctionRepository;
+import com.auctionaggregator.auction.service.AuctionService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires the ENDING_SOON transition and the end of every live auction at its
+ * exact deadline.
+ * <p>
+ * Deadlines are loaded once at startup and then kept current by the
+ * activate, extend and cancel paths, so no periodic table scan is needed. A
+ * single driver thread waits on a {@link HierarchicalTimingWheel} and hands
+ * due timers to a small worker pool, where {@link AuctionService} re-reads
+ * the auction and applies the transition in its own transaction. A
+ * transition that fails is re-armed with exponential backoff, so a transient
+ * error never leaves an auction live past its end.
+ * <p>
+ * Every node keeps all live deadlines in the shared {@link EndTimeIndex}, but
+ * in a cluster it only arms timers for the auctions it owns, re-evaluates
+ * ownership when membership changes and periodically resyncs to see changes
+ * made elsewhere. Changes made on a node arm a timer there as well, so an
+ * auction may occasionally be handled twice; the transition re-reads the
+ * auction and does nothing once it is no longer due. A version conflict,
+ * usually with a bid or a journal drain, is retried like any other failure.
+ */
+@Component
+@Slf4j
+public class AuctionTimerService {
+    
+    private static final List<Auction.AuctionStatus> LIVE_STATUSES =
+        List.of(Auction.AuctionStatus.ACTIVE, Auction.AuctionStatus.ENDING_SOON);
+    private static final long POLL_TIMEOUT_MS = 100;
+    
+    private final AuctionRepository auctionRepository;
+    private final ObjectProvider<AuctionService> auctionService;
+    private final AuctionTimerConfiguration timerConfiguration;
+    private final ClusterMembership clusterMembership;
+    private final EndTimeIndex endTimeIndex;
+    private final HierarchicalTimingWheel<AuctionTimer> wheel;
+    private final ExecutorService workers;
+    private final Map<AuctionTimer, Integer> failedAttempts = new ConcurrentHashMap<>();
+    
+    private Thread driver;
+    private volatile boolean running;
+    
+    public AuctionTimerService(AuctionRepository auctionRepository, ObjectProvider<AuctionService> auctionService,
+                               AuctionTimerConfiguration timerConfiguration, ClusterMembership clusterMembership,
+                               EndTimeIndex endTimeIndex) {
+        this.auctionRepository = auctionRepository;
+        this.auctionService = auctionService;
+        this.timerConfiguration = timerConfiguration;
+        this.clusterMembership = clusterMembership;
+        this.endTimeIndex = endTimeIndex;
+        this.wheel = new HierarchicalTimingWheel<>(timerConfiguration.getTickMs(), timerConfiguration.getWheelSize(),
+            System::currentTimeMillis);
+        
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(timerConfiguration.getWorkerThreads(), r -> {
+            Thread thread = new Thread(r, "auction-timer-worker-" + workerCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int owned = loadOwnedDeadlines();
+        log.info("Auction timer loaded {} live auctions owned by node {}", owned, clusterMembership.getNodeId());
+        
+        running = true;
+        driver = new Thread(this::run, "auction-timer");
+        driver.setDaemon(true);
+        driver.start();
+    }
+    
+    @EventListener
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        if (!running) {
+            return;
+        }
+        int owned = loadOwnedDeadlines();
+        log.info("Auction timers rebalanced across {} nodes, {} auctions now owned", event.members().size(), owned);
+    }
+    
+    /**
+     * Picks up auctions activated or extended on other nodes. A single node sees every change itself.
+     */
+    @Scheduled(fixedDelayString = "${auction.timer.resync-interval:60000}")
+    public void resync() {
+        if (running && clusterMembership.getMembers().size() > 1) {
+            loadOwnedDeadlines();
+        }
+    }
+    
+    /**
+     * Brings the timers of an auction in line with its status and end time.
+     * Inside a transaction this takes effect only after commit.
+     */
+    public void schedule(Auction auction) {
+        AuctionDeadline deadline = AuctionDeadline.from(auction);
+        afterCommit(() -> scheduleNow(deadline));
+    }
+    
+    public void cancel(String auctionId) {
+        afterCommit(() -> cancelNow(auctionId));
+    }
+    
+    public int scheduledCount() {
+        return wheel.size();
+    }
+    
+    private int loadOwnedDeadlines() {
+        endTimeIndex.reload(auctionRepository.findDeadlinesByStatusIn(LIVE_STATUSES));
+        int owned = 0;
+        for (AuctionDeadline deadline : endTimeIndex.all()) {
+            if (clusterMembership.owns(deadline.auctionId())) {
+                armTimers(deadline);
+                owned++;
+            } else {
+                disarmTimers(deadline.auctionId());
+            }
+        }
+        return owned;
+    }
+    
+    private void scheduleNow(AuctionDeadline deadline) {
+        endTimeIndex.update(deadline);
+        armTimers(deadline);
+    }
+    
+    private void cancelNow(String auctionId) {
+        endTimeIndex.remove(auctionId);
+        disarmTimers(auctionId);
+    }
+    
+    private void armTimers(AuctionDeadline deadline) {
+        String auctionId = deadline.auctionId();
+        if (!LIVE_STATUSES.contains(deadline.status()) || deadline.endTime() == null) {
+            disarmTimers(auctionId);
+            return;
+        }
+        
+        AuctionTimer endingSoon = new AuctionTimer(auctionId, TimerType.ENDING_SOON);
+        if (deadline.status() == Auction.AuctionStatus.ACTIVE) {
+            LocalDateTime endingSoonAt = deadline.endTime().minusMinutes(timerConfiguration.getEndingSoonMinutes());
+            arm(endingSoon, endingSoonAt);
+        } else {
+            wheel.cancel(endingSoon);
+        }
+        arm(new AuctionTimer(auctionId, TimerType.END), deadline.endTime());
+    }
+    
+    private void disarmTimers(String auctionId) {
+        for (TimerType type : TimerType.values()) {
+            AuctionTimer timer = new AuctionTimer(auctionId, type);
+            wheel.cancel(timer);
+            failedAttempts.remove(timer);
+        }
+    }
+    
+    private void arm(AuctionTimer timer, LocalDateTime at) {
+        // Round up so the timer never fires before the stored end time
+        Instant instant = at.atZone(ZoneId.systemDefault()).toInstant();
+        long deadlineMs = instant.toEpochMilli() + (instant.getNano() % 1_000_000 == 0 ? 0 : 1);
+        if (!wheel.schedule(timer, deadlineMs)) {
+            // Already due, e.g. an auction that ended while the service was down
+            fire(timer);
+        }
+    }
+    
+    private void run() {
+        while (running) {
+            try {
+                wheel.poll(POLL_TIMEOUT_MS).forEach(this::fire);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Auction timer driver failed", e);
+            }
+        }
+    }
+    
+    private void fire(AuctionTimer timer) {
+        workers.execute(() -> {
+            try {
+                switch (timer.type()) {
+                    case ENDING_SOON -> auctionService.getObject().markEndingSoon(timer.auctionId());
+                    case END -> auctionService.getObject().endAuction(timer.auctionId());
+                }
+                failedAttempts.remove(timer);
+            } catch (Exception e) {
+                retry(timer, e);
+            }
+        });
+    }
+    
+    private void retry(AuctionTimer timer, Exception cause) {
+        int attempt = failedAttempts.merge(timer, 1, Integer::sum);
+        long delay = Math.min(timerConfiguration.getRetryDelay() << Math.min(attempt - 1, 20),
+            timerConfiguration.getRetryMaxDelay());
+        if (cause instanceof OptimisticLockingFailureException) {
+            log.info("Auction {} was updated concurrently, retrying {} timer in {} ms", 
+                timer.auctionId(), timer.type(), delay);
+        } else {
+            log.error("Failed to process {} timer for auction {}, attempt {}, retrying in {} ms", 
+                timer.type(), timer.auctionId(), attempt, delay, cause);
+        }
+        if (!workers.isShutdown() && !wheel.schedule(timer, System.currentTimeMillis() + delay)) {
+            fire(timer);
+        }
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        log.info("Shutting down auction timer");
+        running = false;
+        if (driver != null) {
+            driver.interrupt();
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private enum TimerType {
+        ENDING_SOON,
+        END
+    }
+    
+    private record AuctionTimer(String auctionId, TimerType type) {
+    }
+}
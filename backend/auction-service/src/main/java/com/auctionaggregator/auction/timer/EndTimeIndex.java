@@ -0,0 +1,102 @@
+package com.auctionaggregator.auction.timer;
+
+import com.auctionaggregator.auction.entity.Auction;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * Live auctions ordered by end time, kept current by {@link AuctionTimerService}.
+ * <p>
+ * Backs the ending-soon feed, which pages through it by {@code (endTime, id)}
+ * without touching the database, and is the timer's source of deadlines when
+ * it rebalances.
+ */
+@Component
+public class EndTimeIndex {
+    
+    private final NavigableMap<Position, AuctionDeadline> byEndTime = new ConcurrentSkipListMap<>();
+    private final Map<String, Position> positions = new ConcurrentHashMap<>();
+    
+    public void update(AuctionDeadline deadline) {
+        if (!isLive(deadline)) {
+            remove(deadline.auctionId());
+            return;
+        }
+        Position position = new Position(deadline.endTime(), deadline.auctionId());
+        positions.compute(deadline.auctionId(), (id, previous) -> {
+            if (previous != null) {
+                byEndTime.remove(previous);
+            }
+            byEndTime.put(position, deadline);
+            return position;
+        });
+    }
+    
+    public void remove(String auctionId) {
+        positions.computeIfPresent(auctionId, (id, previous) -> {
+            byEndTime.remove(previous);
+            return null;
+        });
+    }
+    
+    /**
+     * Replaces the contents with a fresh read of all live auctions.
+     */
+    public void reload(List<AuctionDeadline> deadlines) {
+        Set<String> live = deadlines.stream().map(AuctionDeadline::auctionId).collect(Collectors.toSet());
+        positions.keySet().stream().filter(id -> !live.contains(id)).toList().forEach(this::remove);
+        deadlines.forEach(this::update);
+    }
+    
+    /**
+     * Returns live auctions ending within a window, in end time order.
+     *
+     * @param from only auctions ending after this time
+     * @param to only auctions ending at or before this time
+     * @param after the last position of the previous page, or {@code null} for the first page
+     * @param limit maximum number of auctions to return
+     */
+    public List<AuctionDeadline> page(LocalDateTime from, LocalDateTime to, Position after, int limit) {
+        Position start = after != null && after.endTime().isAfter(from) ? after : new Position(from, "");
+        List<AuctionDeadline> page = new ArrayList<>(Math.min(limit, 64));
+        for (Map.Entry<Position, AuctionDeadline> entry : byEndTime.tailMap(start, false).entrySet()) {
+            if (page.size() >= limit || entry.getKey().endTime().isAfter(to)) {
+                break;
+            }
+            page.add(entry.getValue());
+        }
+        return page;
+    }
+    
+    public Collection<AuctionDeadline> all() {
+        return byEndTime.values();
+    }
+    
+    public int size() {
+        return positions.size();
+    }
+    
+    private static boolean isLive(AuctionDeadline deadline) {
+        return deadline.endTime() != null && (deadline.status() == Auction.AuctionStatus.ACTIVE ||
+            deadline.status() == Auction.AuctionStatus.ENDING_SOON);
+    }
+    
+    public record Position(LocalDateTime endTime, String auctionId) implements Comparable<Position> {
+        
+        @Override
+        public int compareTo(Position other) {
+            int byTime = endTime.compareTo(other.endTime);
+            return byTime != 0 ? byTime : auctionId.compareTo(other.auctionId);
+        }
+    }
+}
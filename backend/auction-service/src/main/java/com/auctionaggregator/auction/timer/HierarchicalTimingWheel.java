@@ -0,0 +1,221 @@
+package com.auctionaggregator.auction.timer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Hierarchical timing wheel keyed by timer identity.
+ * <p>
+ * The innermost wheel has {@code wheelSize} buckets of {@code tickMs} each;
+ * every outer wheel is {@code wheelSize} times coarser and is only created
+ * when a deadline falls beyond the range of the wheels below it. Scheduling
+ * and cancelling are O(1). Only non-empty buckets are queued, so the driver
+ * sleeps until the next bucket is due instead of ticking through empty slots.
+ * When an outer bucket comes due its timers cascade into finer wheels until
+ * they expire at {@code tickMs} precision.
+ *
+ * @param <K> the timer key; scheduling an existing key replaces its deadline
+ */
+public class HierarchicalTimingWheel<K> {
+    
+    private final DelayQueue<Bucket<K>> dueBuckets = new DelayQueue<>();
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private final Wheel<K> wheel;
+    
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, LongSupplier clock) {
+        if (tickMs <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("Tick must be positive and wheel size greater than one");
+        }
+        this.wheel = new Wheel<>(tickMs, wheelSize, clock.getAsLong(), dueBuckets, clock);
+    }
+    
+    /**
+     * Schedules or reschedules a timer.
+     *
+     * @param key the timer key
+     * @param deadlineMs absolute deadline in epoch milliseconds
+     * @return {@code true} if the timer was queued, {@code false} if the deadline has already passed
+     */
+    public synchronized boolean schedule(K key, long deadlineMs) {
+        cancel(key);
+        Entry<K> entry = new Entry<>(key, deadlineMs);
+        if (!wheel.add(entry)) {
+            return false;
+        }
+        entries.put(key, entry);
+        return true;
+    }
+    
+    public synchronized boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.bucket.remove(entry);
+        return true;
+    }
+    
+    public synchronized boolean isScheduled(K key) {
+        return entries.containsKey(key);
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Waits for the next bucket to come due and advances the wheel to it.
+     *
+     * @param timeoutMs how long to wait when nothing is due
+     * @return the keys whose deadlines have passed, in no particular order
+     */
+    public List<K> poll(long timeoutMs) throws InterruptedException {
+        Bucket<K> bucket = dueBuckets.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        if (bucket == null) {
+            return List.of();
+        }
+        
+        List<K> expired = new ArrayList<>();
+        synchronized (this) {
+            while (bucket != null) {
+                wheel.advanceClock(bucket.getExpiration());
+                for (Entry<K> entry : bucket.drain()) {
+                    // Re-adding cascades the timer into a finer wheel, or fails once it is due
+                    if (!wheel.add(entry)) {
+                        entries.remove(entry.key);
+                        expired.add(entry.key);
+                    }
+                }
+                bucket = dueBuckets.poll();
+            }
+        }
+        return expired;
+    }
+    
+    private static final class Entry<K> {
+        
+        private final K key;
+        private final long deadlineMs;
+        private Bucket<K> bucket;
+        
+        Entry(K key, long deadlineMs) {
+            this.key = key;
+            this.deadlineMs = deadlineMs;
+        }
+    }
+    
+    private static final class Bucket<K> implements Delayed {
+        
+        private final Set<Entry<K>> entries = new LinkedHashSet<>();
+        private final LongSupplier clock;
+        private volatile long expiration = -1;
+        
+        Bucket(LongSupplier clock) {
+            this.clock = clock;
+        }
+        
+        void add(Entry<K> entry) {
+            entry.bucket = this;
+            entries.add(entry);
+        }
+        
+        void remove(Entry<K> entry) {
+            entries.remove(entry);
+            entry.bucket = null;
+        }
+        
+        List<Entry<K>> drain() {
+            List<Entry<K>> drained = new ArrayList<>(entries);
+            entries.clear();
+            expiration = -1;
+            return drained;
+        }
+        
+        /**
+         * @return {@code true} if the bucket was idle and now has to be queued
+         */
+        boolean setExpiration(long expirationMs) {
+            if (expiration == expirationMs) {
+                return false;
+            }
+            expiration = expirationMs;
+            return true;
+        }
+        
+        long getExpiration() {
+            return expiration;
+        }
+        
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Math.max(expiration - clock.getAsLong(), 0), TimeUnit.MILLISECONDS);
+        }
+        
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiration, ((Bucket<?>) other).expiration);
+        }
+    }
+    
+    private static final class Wheel<K> {
+        
+        private final long tickMs;
+        private final int wheelSize;
+        private final long interval;
+        private final Bucket<K>[] buckets;
+        private final DelayQueue<Bucket<K>> dueBuckets;
+        private final LongSupplier clock;
+        private long currentTime;
+        private Wheel<K> overflow;
+        
+        @SuppressWarnings("unchecked")
+        Wheel(long tickMs, int wheelSize, long startMs, DelayQueue<Bucket<K>> dueBuckets, LongSupplier clock) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.interval = tickMs * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            this.dueBuckets = dueBuckets;
+            this.clock = clock;
+            this.currentTime = startMs - (startMs % tickMs);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket<>(clock);
+            }
+        }
+        
+        boolean add(Entry<K> entry) {
+            if (entry.deadlineMs < currentTime + tickMs) {
+                return false;
+            }
+            if (entry.deadlineMs < currentTime + interval) {
+                long virtualId = entry.deadlineMs / tickMs;
+                Bucket<K> bucket = buckets[(int) (virtualId % wheelSize)];
+                bucket.add(entry);
+                if (bucket.setExpiration(virtualId * tickMs)) {
+                    dueBuckets.offer(bucket);
+                }
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Wheel<>(interval, wheelSize, currentTime, dueBuckets, clock);
+            }
+            return overflow.add(entry);
+        }
+        
+        void advanceClock(long timeMs) {
+            if (timeMs >= currentTime + tickMs) {
+                currentTime = timeMs - (timeMs % tickMs);
+                if (overflow != null) {
+                    overflow.advanceClock(currentTime);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.auctionaggregator.auction.trending;
+
+/**
+ * Lifetime activity counters of an auction, used to seed the trending index.
+ */
+public record AuctionActivity(String auctionId, Integer viewCount, Integer bidCount, Integer watcherCount) {
+}
@@ -0,0 +1,167 @@
+package com.auctionaggregator.auction.trending;
+
+import com.auctionaggregator.auction.config.TrendingConfiguration;
+import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.repository.AuctionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Live ranking of auctions by time-decayed activity.
+ * <p>
+ * Scores use forward decay: an event at time {@code t} adds
+ * {@code weight * 2^((t - base) / halfLife)} instead of shrinking every
+ * existing score as time passes. Relative order is therefore fixed between
+ * events, and each view or bid is a single O(log n) reposition in a sorted
+ * set. Reading the top {@code k} walks the head of that set. The base time is
+ * moved forward periodically so the exponent stays small.
+ */
+@Component
+@Slf4j
+public class TrendingIndex {
+    
+    private static final Comparator<Score> HIGHEST_FIRST = Comparator
+        .comparingDouble(Score::value).reversed()
+        .thenComparing(Score::auctionId);
+    
+    private final AuctionRepository auctionRepository;
+    private final TrendingConfiguration trendingConfiguration;
+    private final LongSupplier clock;
+    
+    private final Map<String, Score> scores = new ConcurrentHashMap<>();
+    private final NavigableSet<Score> ranking = new ConcurrentSkipListSet<>(HIGHEST_FIRST);
+    // Events share the read lock; a rebase rescales every score under the write lock
+    private final ReadWriteLock rebaseLock = new ReentrantReadWriteLock();
+    private volatile long baseTime;
+    
+    @Autowired
+    public TrendingIndex(AuctionRepository auctionRepository, TrendingConfiguration trendingConfiguration) {
+        this(auctionRepository, trendingConfiguration, System::currentTimeMillis);
+    }
+    
+    TrendingIndex(AuctionRepository auctionRepository, TrendingConfiguration trendingConfiguration,
+                  LongSupplier clock) {
+        this.auctionRepository = auctionRepository;
+        this.trendingConfiguration = trendingConfiguration;
+        this.clock = clock;
+        this.baseTime = clock.getAsLong();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        List<AuctionActivity> activities = auctionRepository.findActivityByStatusIn(
+            List.of(Auction.AuctionStatus.ACTIVE, Auction.AuctionStatus.ENDING_SOON));
+        // Lifetime counters carry no timestamps, so they all count as happening now
+        activities.forEach(activity -> add(activity.auctionId(),
+            trendingConfiguration.getViewWeight() * valueOf(activity.viewCount())
+                + trendingConfiguration.getBidWeight() * valueOf(activity.bidCount())
+                + trendingConfiguration.getWatcherWeight() * valueOf(activity.watcherCount())));
+        log.info("Trending index seeded with {} live auctions", activities.size());
+    }
+    
+    public void recordView(String auctionId) {
+        add(auctionId, trendingConfiguration.getViewWeight());
+    }
+    
+    public void recordBid(String auctionId) {
+        add(auctionId, trendingConfiguration.getBidWeight());
+    }
+    
+    public void remove(String auctionId) {
+        rebaseLock.readLock().lock();
+        try {
+            scores.computeIfPresent(auctionId, (id, score) -> {
+                ranking.remove(score);
+                return null;
+            });
+        } finally {
+            rebaseLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * @return the IDs of the highest scoring auctions, best first
+     */
+    public List<String> top(int limit) {
+        // A concurrent reposition can briefly show an auction twice
+        Set<String> top = new LinkedHashSet<>();
+        for (Score score : ranking) {
+            if (top.size() >= limit) {
+                break;
+            }
+            top.add(score.auctionId());
+        }
+        return new ArrayList<>(top);
+    }
+    
+    public int size() {
+        return scores.size();
+    }
+    
+    @Scheduled(fixedDelayString = "${auction.trending.rebase-interval:86400000}",
+               initialDelayString = "${auction.trending.rebase-interval:86400000}")
+    public void rebase() {
+        rebaseLock.writeLock().lock();
+        try {
+            long now = clock.getAsLong();
+            double factor = decay(baseTime, now);
+            ranking.clear();
+            scores.replaceAll((id, score) -> {
+                Score rescaled = new Score(id, score.value() / factor);
+                ranking.add(rescaled);
+                return rescaled;
+            });
+            baseTime = now;
+        } finally {
+            rebaseLock.writeLock().unlock();
+        }
+    }
+    
+    private void add(String auctionId, double weight) {
+        if (weight <= 0) {
+            return;
+        }
+        rebaseLock.readLock().lock();
+        try {
+            double increment = weight * decay(baseTime, clock.getAsLong());
+            scores.compute(auctionId, (id, score) -> {
+                Score updated = new Score(id, score == null ? increment : score.value() + increment);
+                if (score != null) {
+                    ranking.remove(score);
+                }
+                ranking.add(updated);
+                return updated;
+            });
+        } finally {
+            rebaseLock.readLock().unlock();
+        }
+    }
+    
+    private double decay(long from, long to) {
+        return Math.pow(2.0, (double) (to - from) / trendingConfiguration.getHalfLife());
+    }
+    
+    private static double valueOf(Integer count) {
+        return count != null ? count : 0;
+    }
+    
+    private record Score(String auctionId, double value) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.auctionaggregator.auction.websocket;
+
+import org.springframework.web.socket.TextMessage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The sessions on this node watching one auction, and the node's bus
+ * subscription for it, which lives as long as the channel has sessions.
+ * The subscription is made and cancelled outside the channel map, so it may
+ * arrive after the channel was already cancelled.
+ */
+class AuctionChannel {
+    
+    private final String auctionId;
+    private final Map<String, SessionOutbox> outboxes = new ConcurrentHashMap<>();
+    private AuctionUpdateBus.Subscription subscription; // guarded by this
+    private boolean cancelled; // guarded by this
+    
+    AuctionChannel(String auctionId) {
+        this.auctionId = auctionId;
+    }
+    
+    String getAuctionId() {
+        return auctionId;
+    }
+    
+    void add(String sessionId, SessionOutbox outbox) {
+        outboxes.put(sessionId, outbox);
+    }
+    
+    SessionOutbox remove(String sessionId) {
+        return outboxes.remove(sessionId);
+    }
+    
+    boolean isEmpty() {
+        return outboxes.isEmpty();
+    }
+    
+    int size() {
+        return outboxes.size();
+    }
+    
+    /**
+     * Keeps the subscription until the channel is cancelled, or cancels it
+     * right away if the channel was cancelled while it was being made.
+     */
+    void setSubscription(AuctionUpdateBus.Subscription subscription) {
+        synchronized (this) {
+            if (!cancelled) {
+                this.subscription = subscription;
+                return;
+            }
+        }
+        subscription.cancel();
+    }
+    
+    void cancelSubscription() {
+        AuctionUpdateBus.Subscription cancelling;
+        synchronized (this) {
+            cancelled = true;
+            cancelling = subscription;
+            subscription = null;
+        }
+        // Outside the lock, since cancelling may wait on the bus
+        if (cancelling != null) {
+            cancelling.cancel();
+        }
+    }
+    
+    /**
+     * Queues updates received from the bus for every session, in order. Price
+     * updates are conflated in the queues of sessions that are behind.
+     */
+    void deliver(List<AuctionUpdate> updates) {
+        for (AuctionUpdate update : updates) {
+            TextMessage message = new TextMessage(update.payload());
+            String conflationKey = update.conflatable() ? auctionId : null;
+            for (SessionOutbox outbox : outboxes.values()) {
+                if (outbox.getSession().isOpen()) {
+                    outbox.offer(conflationKey, message);
+                }
+            }
+        }
+    }
+}
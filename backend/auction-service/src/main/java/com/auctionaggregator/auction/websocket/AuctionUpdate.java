@@ -0,0 +1,27 @@
+package com.auctionaggregator.auction.websocket;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A serialized WebSocket update of one auction, as published on the {@link AuctionUpdateBus}.
+ *
+ * @param auctionId the auction the update belongs to
+ * @param conflatable whether a newer update of the same auction may replace it, as for prices
+ * @param payload the message sent to subscribers, serialized once by the publishing node
+ */
+public record AuctionUpdate(String auctionId, boolean conflatable, String payload) {
+    
+    /**
+     * Groups updates by auction, keeping their order within each auction.
+     */
+    public static Map<String, List<AuctionUpdate>> byAuction(List<AuctionUpdate> updates) {
+        Map<String, List<AuctionUpdate>> byAuction = new LinkedHashMap<>();
+        for (AuctionUpdate update : updates) {
+            byAuction.computeIfAbsent(update.auctionId(), id -> new ArrayList<>()).add(update);
+        }
+        return byAuction;
+    }
+}
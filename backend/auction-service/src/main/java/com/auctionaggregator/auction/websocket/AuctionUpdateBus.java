@@ -0,0 +1,32 @@
+package com.auctionaggregator.auction.websocket;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries WebSocket updates from the node that produced them to every node
+ * with sessions subscribed to the auction.
+ * <p>
+ * Routing is per auction, so a node only receives the auctions it has
+ * subscribed to. Updates of one auction are delivered in the order they were
+ * published, as a batch per publish.
+ */
+public interface AuctionUpdateBus {
+    
+    /**
+     * Publishes a batch of updates, which may span several auctions.
+     */
+    void publish(List<AuctionUpdate> updates);
+    
+    /**
+     * Starts receiving the updates of an auction until the returned subscription is cancelled.
+     *
+     * @param receiver called with the updates of the auction from one publish, in order; must not block
+     */
+    Subscription subscribe(String auctionId, Consumer<List<AuctionUpdate>> receiver);
+    
+    interface Subscription {
+        
+        void cancel();
+    }
+}
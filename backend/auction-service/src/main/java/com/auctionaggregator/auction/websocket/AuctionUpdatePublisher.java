@@ -0,0 +1,121 @@
+package com.auctionaggregator.auction.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers the updates produced on one node and publishes them on the
+ * {@link AuctionUpdateBus} from a dedicated thread.
+ * <p>
+ * Producers only enqueue, so a bid never waits for a bus round trip. The
+ * publisher sends a batch once it holds {@code batchSize} updates or the
+ * oldest one has waited {@code flushInterval} milliseconds, whichever comes
+ * first. A single thread publishes in enqueue order, so updates of one
+ * auction keep their order. When the buffer is full, for example while the
+ * bus is unreachable, new updates are dropped and counted through
+ * {@code onDropped}.
+ */
+@Slf4j
+class AuctionUpdatePublisher {
+    
+    private final AuctionUpdateBus updateBus;
+    private final BlockingQueue<AuctionUpdate> queue;
+    private final int batchSize;
+    private final long flushInterval;
+    private final Runnable onDropped;
+    private final Thread thread;
+    
+    private volatile boolean running = true;
+    
+    AuctionUpdatePublisher(AuctionUpdateBus updateBus, int capacity, int batchSize, long flushInterval,
+                           Runnable onDropped) {
+        this.updateBus = updateBus;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.onDropped = onDropped;
+        this.thread = new Thread(this::run, "websocket-publisher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+    
+    /**
+     * Queues an update for the next batch without blocking.
+     *
+     * @return {@code false} if the buffer is full and the update was dropped
+     */
+    boolean enqueue(AuctionUpdate update) {
+        if (queue.offer(update)) {
+            return true;
+        }
+        log.warn("Update buffer full, dropping update for auction: {}", update.auctionId());
+        onDropped.run();
+        return false;
+    }
+    
+    /**
+     * Publishes what is still buffered and stops the publisher thread.
+     */
+    void shutdown() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void run() {
+        List<AuctionUpdate> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                batch.add(queue.take());
+                collect(batch);
+                publish(batch);
+            }
+        } catch (InterruptedException e) {
+            // Shutting down
+        }
+        
+        // Publish what is left without waiting for fuller batches
+        do {
+            queue.drainTo(batch, batchSize - batch.size());
+            publish(batch);
+        } while (!queue.isEmpty());
+    }
+    
+    private void collect(List<AuctionUpdate> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushInterval);
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            AuctionUpdate next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+    
+    private void publish(List<AuctionUpdate> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            updateBus.publish(List.copyOf(batch));
+        } catch (RuntimeException e) {
+            log.error("Failed to publish {} updates", batch.size(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.auctionaggregator.auction.websocket;
 
+import com.auctionaggregator.auction.config.WebSocketBroadcastConfiguration;
 import com.auctionaggregator.auction.dto.BidUpdateMessage;
+import com.auctionaggregator.auction.dto.SubscriptionRequest;
 import com.auctionaggregator.auction.entity.Bid;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
@@ -11,62 +16,243 @@ import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
-import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Pushes bid and auction updates to the WebSocket sessions watching an auction.
+ * <p>
+ * A client opens one connection and sends {@link SubscriptionRequest}s to
+ * choose the auctions it watches, for example
+ * {@code {"type":"SUBSCRIBE","auctionIds":["a1","a2"]}}; each request is
+ * answered with the resulting subscriptions. The auction index maps an
+ * auction to the sessions subscribed to it and the session index maps a
+ * session to its auctions, so both a broadcast and a disconnect only touch
+ * what they need.
+ * <p>
+ * Updates are not delivered to local sessions directly but published on the
+ * {@link AuctionUpdateBus}, so they reach watchers connected to any node.
+ * Broadcasting only enqueues the update; an {@link AuctionUpdatePublisher}
+ * publishes the node's updates in batches from its own thread, so a bid never
+ * waits for a bus round trip. A node subscribes to an auction on the bus
+ * while it has sessions watching it and delivers what it receives through
+ * the auction's {@link AuctionChannel}.
+ * Each update is serialized once by the publishing node into a payload shared
+ * by every recipient. Sessions get a bounded {@link SessionOutbox} that is
+ * drained on a dedicated sender pool, so delivery never blocks on a client
+ * and a slow client cannot hold up the others.
+ * <p>
+ * Every bid is published as it is placed, so watchers that keep up see each
+ * one. Price updates are conflatable: a session that is still behind has a
+ * queued price of the same auction replaced by the newest one. Discrete
+ * events such as ENDED or EXTENDED are never conflated.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class BidWebSocketHandler extends TextWebSocketHandler {
     
     private final ObjectMapper objectMapper;
+    private final WebSocketBroadcastConfiguration broadcastConfiguration;
+    private final AuctionUpdateBus updateBus;
+    private final AuctionUpdatePublisher publisher;
+    private final ExecutorService sender;
+    private final Counter droppedMessages;
+    private final Counter slowConsumerDisconnects;
+    private final Counter conflatedMessages;
+    private final SessionOutbox.Listener outboxListener = new OutboxListener();
     
-    // Map of auctionId to set of WebSocket sessions
-    private final Map<String, Set<WebSocketSession>> auctionSessions = new ConcurrentHashMap<>();
+    // Map of auctionId to the channel holding the outboxes of its subscribed sessions
+    private final Map<String, AuctionChannel> auctionChannels = new ConcurrentHashMap<>();
     
-    // Map of sessionId to auctionId for cleanup
-    private final Map<String, String> sessionAuctions = new ConcurrentHashMap<>();
+    // Map of sessionId to the outbox and subscriptions of the session
+    private final Map<String, SessionSubscriptions> sessions = new ConcurrentHashMap<>();
+    
+    public BidWebSocketHandler(ObjectMapper objectMapper, WebSocketBroadcastConfiguration broadcastConfiguration,
+                               AuctionUpdateBus updateBus, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.broadcastConfiguration = broadcastConfiguration;
+        this.updateBus = updateBus;
+        
+        AtomicInteger senderCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(broadcastConfiguration.getSenderThreads(), r -> {
+            Thread thread = new Thread(r, "websocket-sender-" + senderCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.droppedMessages = Counter.builder("auction.websocket.messages.dropped")
+            .description("Updates dropped from full session send queues")
+            .register(meterRegistry);
+        this.slowConsumerDisconnects = Counter.builder("auction.websocket.sessions.slow.disconnects")
+            .description("Sessions closed because their send queue overflowed")
+            .register(meterRegistry);
+        this.conflatedMessages = Counter.builder("auction.websocket.messages.conflated")
+            .description("Queued price updates replaced by a newer one before they were sent")
+            .register(meterRegistry);
+        Counter droppedUpdates = Counter.builder("auction.websocket.updates.dropped")
+            .description("Updates dropped because the publish buffer was full")
+            .register(meterRegistry);
+        this.publisher = new AuctionUpdatePublisher(updateBus, broadcastConfiguration.getPublishQueueCapacity(),
+            broadcastConfiguration.getPublishBatchSize(), broadcastConfiguration.getPublishInterval(),
+            droppedUpdates::increment);
+    }
     
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        String auctionId = extractAuctionId(session);
-        if (auctionId != null) {
-            auctionSessions.computeIfAbsent(auctionId, k -> new CopyOnWriteArraySet<>()).add(session);
-            sessionAuctions.put(session.getId(), auctionId);
-            log.info("WebSocket connection established for auction: {} session: {}", auctionId, session.getId());
-            
-            // Send initial connection confirmation
-            sendMessage(session, BidUpdateMessage.builder()
-                .type("CONNECTION")
-                .message("Connected to auction " + auctionId)
-                .build());
-        }
+        SessionOutbox outbox = new SessionOutbox(session, sender, broadcastConfiguration.getSendQueueCapacity(),
+            broadcastConfiguration.getOverflowPolicy(), broadcastConfiguration.getSendBatchSize(), outboxListener);
+        sessions.put(session.getId(), new SessionSubscriptions(outbox));
+        log.info("WebSocket connection established for session: {}", session.getId());
+        
+        // Send initial connection confirmation
+        outbox.offer(serialize(BidUpdateMessage.builder()
+            .type("CONNECTION")
+            .message("Connected, subscribe to auctions to receive their updates")
+            .build()));
     }
     
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
-        String auctionId = sessionAuctions.remove(session.getId());
-        if (auctionId != null) {
-            Set<WebSocketSession> sessions = auctionSessions.get(auctionId);
-            if (sessions != null) {
-                sessions.remove(session);
-                if (sessions.isEmpty()) {
-                    auctionSessions.remove(auctionId);
-                }
+        SessionSubscriptions subscriptions = sessions.remove(session.getId());
+        if (subscriptions != null) {
+            synchronized (subscriptions) {
+                subscriptions.closed = true;
+                subscriptions.auctionIds.forEach(auctionId -> leave(auctionId, session.getId()));
+                subscriptions.auctionIds.clear();
             }
+            subscriptions.outbox.close();
         }
         log.info("WebSocket connection closed for session: {} status: {}", session.getId(), status);
     }
     
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
-        // Handle incoming messages if needed (e.g., heartbeat, subscription changes)
-        log.debug("Received message: {} from session: {}", message.getPayload(), session.getId());
+        SessionSubscriptions subscriptions = sessions.get(session.getId());
+        if (subscriptions == null) {
+            return;
+        }
+        
+        SubscriptionRequest request;
+        try {
+            request = objectMapper.readValue(message.getPayload(), SubscriptionRequest.class);
+        } catch (JsonProcessingException e) {
+            log.debug("Invalid message from session: {}", session.getId(), e);
+            reply(subscriptions, "ERROR", "Expected a SUBSCRIBE or UNSUBSCRIBE request", null);
+            return;
+        }
+        if (request.getType() == null || request.getAuctionIds() == null) {
+            reply(subscriptions, "ERROR", "Expected a SUBSCRIBE or UNSUBSCRIBE request", null);
+            return;
+        }
+        
+        switch (request.getType()) {
+            case SUBSCRIBE -> subscribe(session.getId(), subscriptions, request.getAuctionIds());
+            case UNSUBSCRIBE -> unsubscribe(session.getId(), subscriptions, request.getAuctionIds());
+        }
+    }
+    
+    private void subscribe(String sessionId, SessionSubscriptions subscriptions, List<String> auctionIds) {
+        int limit = broadcastConfiguration.getMaxSubscriptionsPerSession();
+        List<String> subscribed;
+        boolean limited = false;
+        synchronized (subscriptions) {
+            if (subscriptions.closed) {
+                return;
+            }
+            for (String auctionId : new LinkedHashSet<>(auctionIds)) {
+                if (auctionId == null || auctionId.isBlank() || subscriptions.auctionIds.contains(auctionId)) {
+                    continue;
+                }
+                if (subscriptions.auctionIds.size() >= limit) {
+                    limited = true;
+                    break;
+                }
+                subscriptions.auctionIds.add(auctionId);
+                join(auctionId, sessionId, subscriptions.outbox);
+            }
+            subscribed = new ArrayList<>(subscriptions.auctionIds);
+        }
+        
+        if (limited) {
+            reply(subscriptions, "ERROR", "At most " + limit + " auctions can be watched per connection", subscribed);
+        }
+        reply(subscriptions, "SUBSCRIBED", null, subscribed);
+    }
+    
+    private void unsubscribe(String sessionId, SessionSubscriptions subscriptions, List<String> auctionIds) {
+        List<String> subscribed;
+        synchronized (subscriptions) {
+            for (String auctionId : auctionIds) {
+                if (subscriptions.auctionIds.remove(auctionId)) {
+                    leave(auctionId, sessionId);
+                }
+            }
+            subscribed = new ArrayList<>(subscriptions.auctionIds);
+        }
+        reply(subscriptions, "SUBSCRIBED", null, subscribed);
+    }
+    
+    private void join(String auctionId, String sessionId, SessionOutbox outbox) {
+        AuctionChannel[] created = new AuctionChannel[1];
+        auctionChannels.compute(auctionId, (id, channel) -> {
+            AuctionChannel updated = channel;
+            if (updated == null) {
+                updated = new AuctionChannel(id);
+                created[0] = updated;
+            }
+            updated.add(sessionId, outbox);
+            return updated;
+        });
+        
+        // Subscribe outside compute, which would hold the map bin while the bus round trip runs.
+        // The subscription feeds only its own channel, so one outliving a discarded channel reaches no one
+        AuctionChannel channel = created[0];
+        if (channel != null) {
+            channel.setSubscription(updateBus.subscribe(auctionId, updates -> deliver(channel, updates)));
+        }
+    }
+    
+    private void leave(String auctionId, String sessionId) {
+        // Removing inside compute keeps a concurrent subscribe from landing in a discarded channel
+        AuctionChannel[] emptied = new AuctionChannel[1];
+        auctionChannels.computeIfPresent(auctionId, (id, channel) -> {
+            channel.remove(sessionId);
+            if (!channel.isEmpty()) {
+                return channel;
+            }
+            emptied[0] = channel;
+            return null;
+        });
+        
+        if (emptied[0] != null) {
+            emptied[0].cancelSubscription();
+        }
     }
     
+    private void reply(SessionSubscriptions subscriptions, String type, String text, List<String> auctionIds) {
+        try {
+            subscriptions.outbox.offer(serialize(BidUpdateMessage.builder()
+                .type(type)
+                .message(text)
+                .data(auctionIds)
+                .timestamp(LocalDateTime.now())
+                .build()));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize {} reply", type, e);
+        }
+    }
+    
+    /**
+     * Publishes a bid as the latest price of the auction, on every node.
+     */
     public void broadcastBidUpdate(String auctionId, Bid bid) {
         BidUpdateMessage message = BidUpdateMessage.builder()
             .type("BID_PLACED")
@@ -77,9 +263,12 @@ public class BidWebSocketHandler extends TextWebSocketHandler {
             .timestamp(bid.getBidTime())
             .build();
         
-        broadcastToAuction(auctionId, message);
+        publish(message, true);
     }
     
+    /**
+     * Publishes a discrete auction event, on every node.
+     */
     public void broadcastAuctionUpdate(String auctionId, String updateType, Object data) {
         BidUpdateMessage message = BidUpdateMessage.builder()
             .type(updateType)
@@ -88,38 +277,26 @@ public class BidWebSocketHandler extends TextWebSocketHandler {
             .timestamp(LocalDateTime.now())
             .build();
         
-        broadcastToAuction(auctionId, message);
-    }
-    
-    private void broadcastToAuction(String auctionId, BidUpdateMessage message) {
-        Set<WebSocketSession> sessions = auctionSessions.get(auctionId);
-        if (sessions != null && !sessions.isEmpty()) {
-            sessions.parallelStream().forEach(session -> {
-                if (session.isOpen()) {
-                    try {
-                        sendMessage(session, message);
-                    } catch (Exception e) {
-                        log.error("Error sending message to session: {}", session.getId(), e);
-                    }
-                }
-            });
-            log.info("Broadcasted {} update to {} sessions for auction: {}", 
-                message.getType(), sessions.size(), auctionId);
+        publish(message, false);
+    }
+    
+    private void publish(BidUpdateMessage message, boolean conflatable) {
+        try {
+            publisher.enqueue(new AuctionUpdate(message.getAuctionId(), conflatable,
+                objectMapper.writeValueAsString(message)));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize {} update for auction: {}", message.getType(), message.getAuctionId(), e);
         }
     }
     
-    private void sendMessage(WebSocketSession session, Object message) throws IOException {
-        String json = objectMapper.writeValueAsString(message);
-        session.sendMessage(new TextMessage(json));
+    private void deliver(AuctionChannel channel, List<AuctionUpdate> updates) {
+        channel.deliver(updates);
+        log.debug("Queued {} updates for {} sessions of auction: {}", updates.size(), channel.size(),
+            channel.getAuctionId());
     }
     
-    private String extractAuctionId(WebSocketSession session) {
-        String path = session.getUri().getPath();
-        String[] parts = path.split("/");
-        if (parts.length > 0) {
-            return parts[parts.length - 1];
-        }
-        return null;
+    private TextMessage serialize(BidUpdateMessage message) throws JsonProcessingException {
+        return new TextMessage(objectMapper.writeValueAsString(message));
     }
     
     private String maskBidderId(String bidderId) {
@@ -130,11 +307,50 @@ public class BidWebSocketHandler extends TextWebSocketHandler {
     }
     
     public int getActiveConnectionsCount(String auctionId) {
-        Set<WebSocketSession> sessions = auctionSessions.get(auctionId);
-        return sessions != null ? sessions.size() : 0;
+        AuctionChannel channel = auctionChannels.get(auctionId);
+        return channel != null ? channel.size() : 0;
     }
     
     public int getTotalActiveConnections() {
-        return sessionAuctions.size();
+        return sessions.size();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        publisher.shutdown();
+        sender.shutdown();
+        try {
+            sender.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static final class SessionSubscriptions {
+        
+        private final SessionOutbox outbox;
+        private final Set<String> auctionIds = new LinkedHashSet<>(); // guarded by this
+        private boolean closed; // guarded by this
+        
+        SessionSubscriptions(SessionOutbox outbox) {
+            this.outbox = outbox;
+        }
+    }
+    
+    private class OutboxListener implements SessionOutbox.Listener {
+        
+        @Override
+        public void onOverflow(SessionOutbox outbox, WebSocketBroadcastConfiguration.OverflowPolicy policy) {
+            if (policy == WebSocketBroadcastConfiguration.OverflowPolicy.DISCONNECT) {
+                slowConsumerDisconnects.increment();
+            } else {
+                droppedMessages.increment();
+            }
+        }
+        
+        @Override
+        public void onConflated(SessionOutbox outbox) {
+            conflatedMessages.increment();
+        }
     }
-}
\ No newline at end of file
+}
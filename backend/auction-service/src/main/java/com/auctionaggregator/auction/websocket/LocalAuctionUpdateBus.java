@@ -0,0 +1,57 @@
+package com.auctionaggregator.auction.websocket;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Bus for a single node, which delivers updates synchronously to the
+ * receivers in this process. Tests can share one instance between several
+ * handlers to simulate a cluster.
+ */
+@Component
+@ConditionalOnProperty(prefix = "auction.cluster", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class LocalAuctionUpdateBus implements AuctionUpdateBus {
+    
+    private final Map<String, Set<Receiver>> receivers = new ConcurrentHashMap<>();
+    
+    @Override
+    public void publish(List<AuctionUpdate> updates) {
+        AuctionUpdate.byAuction(updates).forEach((auctionId, batch) -> {
+            Set<Receiver> subscribed = receivers.get(auctionId);
+            if (subscribed != null) {
+                subscribed.forEach(receiver -> receiver.consumer.accept(batch));
+            }
+        });
+    }
+    
+    @Override
+    public Subscription subscribe(String auctionId, Consumer<List<AuctionUpdate>> consumer) {
+        Receiver receiver = new Receiver(consumer);
+        receivers.computeIfAbsent(auctionId, id -> ConcurrentHashMap.newKeySet()).add(receiver);
+        return () -> receivers.computeIfPresent(auctionId, (id, subscribed) -> {
+            subscribed.remove(receiver);
+            return subscribed.isEmpty() ? null : subscribed;
+        });
+    }
+    
+    public int getSubscriberCount(String auctionId) {
+        Set<Receiver> subscribed = receivers.get(auctionId);
+        return subscribed != null ? subscribed.size() : 0;
+    }
+    
+    // Identity-based, so the same consumer can be subscribed more than once
+    private static final class Receiver {
+        
+        private final Consumer<List<AuctionUpdate>> consumer;
+        
+        Receiver(Consumer<List<AuctionUpdate>> consumer) {
+            this.consumer = consumer;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.auctionaggregator.auction.websocket;
+
+import com.auctionaggregator.auction.config.WebSocketBroadcastConfiguration;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Bus for a cluster, backed by Redis pub/sub with one channel per auction.
+ * <p>
+ * A node subscribes only to the channels of auctions it has sessions for,
+ * so Redis fans each update out to exactly the nodes that need it. A publish
+ * sends one message per auction holding all of its updates, and the messages
+ * of all auctions go out in a single pipelined round trip.
+ */
+@Component
+@ConditionalOnProperty(prefix = "auction.cluster", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class RedisAuctionUpdateBus implements AuctionUpdateBus {
+    
+    private static final TypeReference<List<AuctionUpdate>> BATCH = new TypeReference<>() {
+    };
+    
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final WebSocketBroadcastConfiguration broadcastConfiguration;
+    
+    @Override
+    public void publish(List<AuctionUpdate> updates) {
+        List<byte[][]> messages = new ArrayList<>();
+        for (Map.Entry<String, List<AuctionUpdate>> batch : AuctionUpdate.byAuction(updates).entrySet()) {
+            try {
+                messages.add(new byte[][] {
+                    channel(batch.getKey()).getBytes(StandardCharsets.UTF_8),
+                    objectMapper.writeValueAsBytes(batch.getValue())
+                });
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize updates for auction: {}", batch.getKey(), e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                messages.forEach(message -> connection.publish(message[0], message[1]));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish updates for {} auctions", messages.size(), e);
+        }
+    }
+    
+    @Override
+    public Subscription subscribe(String auctionId, Consumer<List<AuctionUpdate>> receiver) {
+        ChannelTopic topic = new ChannelTopic(channel(auctionId));
+        MessageListener listener = (message, pattern) -> {
+            try {
+                receiver.accept(objectMapper.readValue(message.getBody(), BATCH));
+            } catch (IOException e) {
+                log.warn("Ignoring malformed updates for auction: {}", auctionId, e);
+            }
+        };
+        listenerContainer.addMessageListener(listener, topic);
+        return () -> listenerContainer.removeMessageListener(listener, topic);
+    }
+    
+    private String channel(String auctionId) {
+        return broadcastConfiguration.getChannelPrefix() + auctionId;
+    }
+}
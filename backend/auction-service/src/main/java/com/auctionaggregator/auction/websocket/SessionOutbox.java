@@ -0,0 +1,198 @@
+package com.auctionaggregator.auction.websocket;
+
+import com.auctionaggregator.auction.config.WebSocketBroadcastConfiguration.OverflowPolicy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Bounded outbound queue of one WebSocket session.
+ * <p>
+ * Producers only enqueue; the queue drains itself on the sender executor,
+ * one task per session at a time, so messages keep their order and a slow
+ * client ties up at most one sender thread and only for a batch at a time.
+ * <p>
+ * Messages offered with a conflation key are last-value: while one with the
+ * same key is still queued, a newer one replaces it and moves to the tail,
+ * so a client that falls behind only receives the latest state and never
+ * sees it ahead of an event queued before it. Messages without a key
+ * are discrete events and are never conflated or dropped. When the queue is
+ * full, {@link OverflowPolicy#DROP_OLDEST} drops the oldest conflatable
+ * message; if there is none, or with {@link OverflowPolicy#DISCONNECT}, the
+ * session is closed.
+ */
+@Slf4j
+class SessionOutbox {
+    
+    private final WebSocketSession session;
+    private final Executor sender;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final Listener listener;
+    
+    private final Deque<Outbound> queue = new ArrayDeque<>();
+    private final Map<String, Outbound> queuedByKey = new HashMap<>();
+    private boolean draining;
+    private boolean closed;
+    
+    SessionOutbox(WebSocketSession session, Executor sender, int capacity, OverflowPolicy overflowPolicy,
+                  int batchSize, Listener listener) {
+        this.session = session;
+        this.sender = sender;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.listener = listener;
+    }
+    
+    WebSocketSession getSession() {
+        return session;
+    }
+    
+    /**
+     * Queues a discrete event without blocking.
+     *
+     * @return {@code false} if the outbox is closed, or was closed because the client fell behind
+     */
+    boolean offer(TextMessage message) {
+        return offer(null, message);
+    }
+    
+    /**
+     * Queues a message without blocking, replacing a queued message with the same conflation key.
+     *
+     * @param conflationKey the key of a last-value message, or {@code null} for a discrete event
+     * @return {@code false} if the outbox is closed, or was closed because the client fell behind
+     */
+    boolean offer(String conflationKey, TextMessage message) {
+        boolean schedule;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            Outbound queued = conflationKey != null ? queuedByKey.remove(conflationKey) : null;
+            if (queued != null) {
+                queue.removeFirstOccurrence(queued);
+                listener.onConflated(this);
+            } else if (queue.size() >= capacity) {
+                if (overflowPolicy == OverflowPolicy.DISCONNECT || !dropOldestConflatable()) {
+                    closed = true;
+                    queue.clear();
+                    queuedByKey.clear();
+                    listener.onOverflow(this, OverflowPolicy.DISCONNECT);
+                    submit(this::closeSlowConsumer);
+                    return false;
+                }
+                listener.onOverflow(this, OverflowPolicy.DROP_OLDEST);
+            }
+            
+            Outbound outbound = new Outbound(conflationKey, message);
+            queue.addLast(outbound);
+            if (conflationKey != null) {
+                queuedByKey.put(conflationKey, outbound);
+            }
+            schedule = !draining;
+            draining = true;
+        }
+        if (schedule) {
+            submit(this::drain);
+        }
+        return true;
+    }
+    
+    synchronized int size() {
+        return queue.size();
+    }
+    
+    synchronized void close() {
+        closed = true;
+        queue.clear();
+        queuedByKey.clear();
+    }
+    
+    private boolean dropOldestConflatable() {
+        for (Iterator<Outbound> it = queue.iterator(); it.hasNext(); ) {
+            Outbound outbound = it.next();
+            if (outbound.conflationKey != null) {
+                it.remove();
+                queuedByKey.remove(outbound.conflationKey);
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void drain() {
+        for (int sent = 0; sent < batchSize; sent++) {
+            TextMessage message;
+            synchronized (this) {
+                Outbound outbound = queue.pollFirst();
+                if (outbound == null) {
+                    draining = false;
+                    return;
+                }
+                if (outbound.conflationKey != null) {
+                    queuedByKey.remove(outbound.conflationKey);
+                }
+                message = outbound.message;
+            }
+            try {
+                if (session.isOpen()) {
+                    session.sendMessage(message);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Failed to send to WebSocket session {}", session.getId(), e);
+                close();
+            }
+        }
+        // Give other sessions a turn before sending the rest
+        submit(this::drain);
+    }
+    
+    private void closeSlowConsumer() {
+        log.warn("Closing WebSocket session {} that fell {} messages behind", session.getId(), capacity);
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Failed to close WebSocket session {}", session.getId(), e);
+        }
+    }
+    
+    private void submit(Runnable task) {
+        try {
+            sender.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            close();
+        }
+    }
+    
+    private static final class Outbound {
+        
+        private final String conflationKey;
+        private final TextMessage message;
+        
+        Outbound(String conflationKey, TextMessage message) {
+            this.conflationKey = conflationKey;
+            this.message = message;
+        }
+    }
+    
+    interface Listener {
+        
+        void onOverflow(SessionOutbox outbox, OverflowPolicy policy);
+        
+        void onConflated(SessionOutbox outbox);
+    }
+}
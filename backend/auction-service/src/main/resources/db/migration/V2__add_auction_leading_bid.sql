@@ -0,0 +1,14 @@
+-- Track the current leading bid on the auction row so a new bid only has to demote one bid
+ALTER TABLE auctions ADD COLUMN leading_bid_id VARCHAR(36);
+
+UPDATE auctions a SET leading_bid_id = (
+    SELECT b.id FROM bids b
+    WHERE b.auction_id = a.id AND b.status IN ('ACCEPTED', 'WINNING')
+    ORDER BY b.amount DESC, b.bid_time ASC
+    LIMIT 1
+);
+
+-- Earlier bids that were never demoted are no longer leading
+UPDATE bids b SET status = 'OUTBID', is_winning_bid = FALSE
+FROM auctions a
+WHERE b.auction_id = a.id AND b.status = 'ACCEPTED' AND b.id <> a.leading_bid_id;
@@ -0,0 +1,13 @@
+-- Maintained by the bid path so listing, ending and extending never load bid rows
+ALTER TABLE auctions ADD COLUMN bid_count INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE auctions ADD COLUMN last_bid_time TIMESTAMP;
+
+UPDATE auctions a SET
+    bid_count = s.bid_count,
+    last_bid_time = s.last_bid_time
+FROM (
+    SELECT auction_id, COUNT(*) AS bid_count, MAX(bid_time) AS last_bid_time
+    FROM bids
+    GROUP BY auction_id
+) s
+WHERE s.auction_id = a.id;
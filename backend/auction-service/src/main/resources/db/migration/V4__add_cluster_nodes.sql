@@ -0,0 +1,8 @@
+-- Liveness leases for partitioning scheduled work between service replicas
+CREATE TABLE cluster_nodes (
+    node_id VARCHAR(255) PRIMARY KEY,
+    heartbeat_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_cluster_nodes_expires ON cluster_nodes(expires_at);
@@ -0,0 +1,20 @@
+-- Indexes backing AuctionSpecifications; every search filter combination is served by one of these
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Status and category filters are almost always combined with a price range
+CREATE INDEX idx_auctions_status_price ON auctions(status, current_price);
+CREATE INDEX idx_auctions_category_status_price ON auctions(category_id, status, current_price);
+CREATE INDEX idx_auctions_source_status_price ON auctions(source, status, current_price);
+
+-- Price-only searches
+CREATE INDEX idx_auctions_current_price ON auctions(current_price);
+
+-- Substring matching on title and description
+CREATE INDEX idx_auctions_title_trgm ON auctions USING GIN (lower(title) gin_trgm_ops);
+CREATE INDEX idx_auctions_description_trgm ON auctions USING GIN (lower(description) gin_trgm_ops);
+
+-- Case-insensitive location lookups
+CREATE INDEX idx_auction_details_city ON auction_details(lower(location_city));
+CREATE INDEX idx_auction_details_state ON auction_details(lower(location_state));
+CREATE INDEX idx_auction_details_country ON auction_details(lower(location_country));
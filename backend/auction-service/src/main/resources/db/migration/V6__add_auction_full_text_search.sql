@@ -0,0 +1,67 @@
+-- Full-text search over title, tags and description, ranked in that order of importance.
+-- Tags live in auction_tags, so the vector is maintained by triggers rather than as a generated column.
+
+ALTER TABLE auctions ADD COLUMN search_vector TSVECTOR;
+
+CREATE FUNCTION auction_search_vector(auction_title TEXT, auction_description TEXT, auction_id VARCHAR)
+RETURNS TSVECTOR AS $$
+    SELECT setweight(to_tsvector('english', coalesce(auction_title, '')), 'A') ||
+           setweight(to_tsvector('english', coalesce(
+               (SELECT string_agg(tag, ' ') FROM auction_tags WHERE auction_tags.auction_id = $3), '')), 'B') ||
+           setweight(to_tsvector('english', coalesce(auction_description, '')), 'C');
+$$ LANGUAGE sql STABLE;
+
+CREATE FUNCTION auctions_search_vector_trigger() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector := auction_search_vector(NEW.title, NEW.description, NEW.id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_auctions_insert_search_vector
+    BEFORE INSERT ON auctions
+    FOR EACH ROW EXECUTE FUNCTION auctions_search_vector_trigger();
+
+-- Hibernate writes every column on update, so only rebuild when the text really changed
+CREATE TRIGGER trg_auctions_update_search_vector
+    BEFORE UPDATE OF title, description ON auctions
+    FOR EACH ROW
+    WHEN (OLD.title IS DISTINCT FROM NEW.title OR OLD.description IS DISTINCT FROM NEW.description)
+    EXECUTE FUNCTION auctions_search_vector_trigger();
+
+-- Tag collections are rewritten as a whole, so refresh once per statement rather than once per row
+CREATE FUNCTION auction_tags_search_vector_trigger() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        UPDATE auctions a SET search_vector = auction_search_vector(a.title, a.description, a.id)
+        WHERE a.id IN (SELECT auction_id FROM new_tags);
+    ELSIF TG_OP = 'DELETE' THEN
+        UPDATE auctions a SET search_vector = auction_search_vector(a.title, a.description, a.id)
+        WHERE a.id IN (SELECT auction_id FROM old_tags);
+    ELSE
+        UPDATE auctions a SET search_vector = auction_search_vector(a.title, a.description, a.id)
+        WHERE a.id IN (SELECT auction_id FROM old_tags UNION SELECT auction_id FROM new_tags);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_auction_tags_insert_search_vector
+    AFTER INSERT ON auction_tags REFERENCING NEW TABLE AS new_tags
+    FOR EACH STATEMENT EXECUTE FUNCTION auction_tags_search_vector_trigger();
+
+CREATE TRIGGER trg_auction_tags_delete_search_vector
+    AFTER DELETE ON auction_tags REFERENCING OLD TABLE AS old_tags
+    FOR EACH STATEMENT EXECUTE FUNCTION auction_tags_search_vector_trigger();
+
+CREATE TRIGGER trg_auction_tags_update_search_vector
+    AFTER UPDATE ON auction_tags REFERENCING OLD TABLE AS old_tags NEW TABLE AS new_tags
+    FOR EACH STATEMENT EXECUTE FUNCTION auction_tags_search_vector_trigger();
+
+UPDATE auctions SET search_vector = auction_search_vector(title, description, id);
+
+CREATE INDEX idx_auctions_search_vector ON auctions USING GIN (search_vector);
+
+-- Text queries now go through the full-text index
+DROP INDEX idx_auctions_title_trgm;
+DROP INDEX idx_auctions_description_trgm;
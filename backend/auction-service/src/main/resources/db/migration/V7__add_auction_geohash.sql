@@ -0,0 +1,75 @@
+-- Proximity search over auction_details coordinates.
+-- Each located auction stores the geohash of its coordinates; an area is covered by a few geohash
+-- cells, and with byte-wise collation every cell is one contiguous range of the B-tree below.
+
+ALTER TABLE auction_details ADD COLUMN geohash VARCHAR(12) COLLATE "C";
+
+-- Must stay in line with Geohash.encode
+CREATE FUNCTION geohash_encode(latitude DOUBLE PRECISION, longitude DOUBLE PRECISION, hash_length INTEGER)
+RETURNS VARCHAR AS $$
+DECLARE
+    alphabet CONSTANT TEXT := '0123456789bcdefghjkmnpqrstuvwxyz';
+    min_latitude DOUBLE PRECISION := -90;
+    max_latitude DOUBLE PRECISION := 90;
+    min_longitude DOUBLE PRECISION := -180;
+    max_longitude DOUBLE PRECISION := 180;
+    mid DOUBLE PRECISION;
+    even_bit BOOLEAN := TRUE;
+    bits INTEGER := 0;
+    value INTEGER := 0;
+    hash TEXT := '';
+BEGIN
+    WHILE length(hash) < hash_length LOOP
+        IF even_bit THEN
+            mid := (min_longitude + max_longitude) / 2;
+            IF longitude >= mid THEN
+                value := value * 2 + 1;
+                min_longitude := mid;
+            ELSE
+                value := value * 2;
+                max_longitude := mid;
+            END IF;
+        ELSE
+            mid := (min_latitude + max_latitude) / 2;
+            IF latitude >= mid THEN
+                value := value * 2 + 1;
+                min_latitude := mid;
+            ELSE
+                value := value * 2;
+                max_latitude := mid;
+            END IF;
+        END IF;
+        even_bit := NOT even_bit;
+        bits := bits + 1;
+        IF bits = 5 THEN
+            hash := hash || substr(alphabet, value + 1, 1);
+            bits := 0;
+            value := 0;
+        END IF;
+    END LOOP;
+    RETURN hash;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE STRICT;
+
+CREATE FUNCTION auction_details_geohash_trigger() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.geohash := geohash_encode(NEW.latitude, NEW.longitude, 9);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_auction_details_insert_geohash
+    BEFORE INSERT ON auction_details
+    FOR EACH ROW EXECUTE FUNCTION auction_details_geohash_trigger();
+
+-- Hibernate writes every column on update, so only re-encode when the coordinates really changed
+CREATE TRIGGER trg_auction_details_update_geohash
+    BEFORE UPDATE OF latitude, longitude ON auction_details
+    FOR EACH ROW
+    WHEN (OLD.latitude IS DISTINCT FROM NEW.latitude OR OLD.longitude IS DISTINCT FROM NEW.longitude)
+    EXECUTE FUNCTION auction_details_geohash_trigger();
+
+UPDATE auction_details SET geohash = geohash_encode(latitude, longitude, 9)
+WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
+
+CREATE INDEX idx_auction_details_geohash ON auction_details(geohash) WHERE geohash IS NOT NULL;
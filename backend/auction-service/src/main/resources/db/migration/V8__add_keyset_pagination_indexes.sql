@@ -0,0 +1,15 @@
+-- Keyset pagination orders by a sort key with the id as tie-breaker, so each order gets a
+-- (key, id) index; a page then starts with an index seek whatever its depth.
+-- The composite indexes supersede the single-column ones on the same leading column.
+
+CREATE INDEX idx_auctions_end_time_id ON auctions(end_time, id);
+CREATE INDEX idx_auctions_created_at_id ON auctions(created_at, id);
+CREATE INDEX idx_auctions_current_price_id ON auctions(current_price, id);
+DROP INDEX idx_auctions_end_time;
+DROP INDEX idx_auctions_current_price;
+
+-- Bid history, newest first per auction and per bidder
+CREATE INDEX idx_bids_auction_bid_time_id ON bids(auction_id, bid_time, id);
+CREATE INDEX idx_bids_bidder_bid_time_id ON bids(bidder_id, bid_time, id);
+DROP INDEX idx_bids_auction;
+DROP INDEX idx_bids_bidder;
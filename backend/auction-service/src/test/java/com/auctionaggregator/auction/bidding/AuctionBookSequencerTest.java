@@ -0,0 +1,125 @@
+package com.auctionaggregator.auction.bidding;
+
+import com.auctionaggregator.auction.config.BiddingConfiguration;
+import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.exception.BidException;
+import com.auctionaggregator.auction.repository.AuctionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AuctionBookSequencerTest {
+    
+    private AuctionBookSequencer sequencer;
+    private AuctionRepository auctionRepository;
+    private BidJournal bidJournal;
+    private BidJournalDrainer bidJournalDrainer;
+    private CountDownLatch release;
+    
+    @BeforeEach
+    void setUp() {
+        auctionRepository = mock(AuctionRepository.class);
+        bidJournal = mock(BidJournal.class);
+        bidJournalDrainer = mock(BidJournalDrainer.class);
+        Auction auction = mock(Auction.class);
+        when(auction.getId()).thenReturn("auction-1");
+        when(auctionRepository.findById(anyString())).thenReturn(Optional.of(auction));
+        
+        BiddingConfiguration configuration = new BiddingConfiguration();
+        configuration.setSequencerShards(1);
+        configuration.setSequencerTimeout(100);
+        sequencer = new AuctionBookSequencer(auctionRepository, configuration, bidJournal, bidJournalDrainer);
+        release = new CountDownLatch(1);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        sequencer.shutdown();
+    }
+    
+    @Test
+    void testQueuedTaskIsWithdrawnOnTimeout() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> sequencer.execute("auction-1", book -> {
+            started.countDown();
+            awaitRelease();
+            return null;
+        }));
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+        
+        AtomicBoolean ran = new AtomicBoolean();
+        assertThatThrownBy(() -> sequencer.execute("auction-1", book -> ran.getAndSet(true)))
+            .isInstanceOf(BidException.class)
+            .hasMessageContaining("please retry");
+        
+        release.countDown();
+        assertThat(sequencer.execute("auction-1", book -> "next")).isEqualTo("next");
+        assertThat(ran).isFalse();
+    }
+    
+    @Test
+    void testStartedTaskIsAwaited() {
+        String result = sequencer.execute("auction-1", book -> {
+            sleep(150);
+            return "placed";
+        });
+        
+        assertThat(result).isEqualTo("placed");
+    }
+    
+    @Test
+    void testStartedTaskThatNeverFinishesHasUnknownOutcome() {
+        assertThatThrownBy(() -> sequencer.execute("auction-1", book -> {
+            awaitRelease();
+            return null;
+        }))
+            .isInstanceOf(BidException.class)
+            .hasMessageContaining("check your bids");
+    }
+    
+    @Test
+    void testEvictedBookIsReloadedOnlyAfterDrainingTheJournal() {
+        when(bidJournal.isEnabled()).thenReturn(true);
+        sequencer.execute("auction-1", book -> book);
+        
+        sequencer.evict("auction-1");
+        sequencer.execute("auction-1", book -> book);
+        
+        InOrder order = inOrder(bidJournalDrainer, auctionRepository);
+        order.verify(bidJournalDrainer).drain();
+        order.verify(auctionRepository).findById("auction-1");
+        order.verify(bidJournalDrainer).drain();
+        order.verify(auctionRepository).findById("auction-1");
+    }
+    
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.auctionaggregator.auction.bidding;
+
+import com.auctionaggregator.auction.cache.AuctionCache;
+import com.auctionaggregator.auction.config.BiddingConfiguration;
+import com.auctionaggregator.auction.entity.Bid;
+import com.auctionaggregator.auction.service.AuctionSearchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Drains journaled bids into Postgres and checks who ends up leading, including
+ * a bid accepted by a book that was rebuilt from a row missing earlier bids.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class BidJournalDrainerTest {
+    
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    static {
+        postgres.start();
+    }
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+    
+    @AfterAll
+    static void tearDown() {
+        postgres.stop();
+    }
+    
+    @TempDir
+    Path directory;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private BidJournal bidJournal;
+    private AuctionCache auctionCache;
+    private BidJournalDrainer drainer;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        BiddingConfiguration configuration = new BiddingConfiguration();
+        configuration.getJournal().setEnabled(true);
+        configuration.getJournal().setDirectory(directory.toString());
+        configuration.getJournal().setSegmentSize(64 * 1024);
+        configuration.getJournal().setFlushInterval(60_000);
+        
+        bidJournal = new BidJournal(configuration, new ObjectMapper().findAndRegisterModules());
+        bidJournal.init();
+        auctionCache = mock(AuctionCache.class);
+        drainer = new BidJournalDrainer(bidJournal, jdbcTemplate, new TransactionTemplate(transactionManager),
+            configuration, auctionCache, mock(AuctionSearchService.class));
+        
+        jdbcTemplate.update(
+            "INSERT INTO auctions (id, title, seller_id, status, auction_type, starting_price, current_price, " +
+            "bid_increment, start_time, end_time, source) " +
+            "VALUES ('auction-1', 'Lot', 'seller', 'ACTIVE', 'STANDARD', 100, 100, 10, " +
+            "now() - interval '1 day', now() + interval '1 day', 'Internal')");
+        
+        append("bid-leader", "200.00");
+        assertThat(drainer.drain()).isEqualTo(1);
+    }
+    
+    @AfterEach
+    void closeJournal() {
+        bidJournal.close();
+    }
+    
+    @Test
+    void testHigherBidReplacesTheLeader() {
+        append("bid-higher", "250.00");
+        
+        drainer.drain();
+        
+        assertThat(status("bid-leader")).isEqualTo("OUTBID");
+        assertThat(status("bid-higher")).isEqualTo("ACCEPTED");
+        assertThat(auction()).containsEntry("leading_bid_id", "bid-higher")
+            .containsEntry("current_price", new BigDecimal("250.00"));
+    }
+    
+    @Test
+    void testLowerBidFromAStaleBookDoesNotDemoteTheLeader() {
+        // Accepted by a book rebuilt from the row before bid-leader was drained
+        append("bid-stale", "150.00");
+        
+        drainer.drain();
+        
+        assertThat(status("bid-leader")).isEqualTo("ACCEPTED");
+        assertThat(status("bid-stale")).isEqualTo("OUTBID");
+        assertThat(auction()).containsEntry("leading_bid_id", "bid-leader")
+            .containsEntry("current_price", new BigDecimal("200.00"));
+    }
+    
+    @Test
+    void testReplayedBatchKeepsTheLeader() {
+        append("bid-higher", "250.00");
+        drainer.drain();
+        
+        // Start over from the beginning of the journal, as after a crash before the checkpoint was written
+        bidJournal.commitCheckpoint(JournalPosition.START);
+        assertThat(drainer.drain()).isEqualTo(2);
+        
+        assertThat(status("bid-leader")).isEqualTo("OUTBID");
+        assertThat(status("bid-higher")).isEqualTo("ACCEPTED");
+        assertThat(auction()).containsEntry("leading_bid_id", "bid-higher")
+            .containsEntry("bid_count", 2);
+    }
+    
+    @Test
+    void testCacheIsTombstonedWithTheDrainedVersion() {
+        long before = version();
+        append("bid-stale", "150.00");
+        
+        drainer.drain();
+        
+        // Even a bid that does not move the price changes the bid count, so the version moves on
+        assertThat(version()).isGreaterThan(before);
+        verify(auctionCache).evict("auction-1", version());
+        verify(auctionCache, never()).evict("auction-1");
+    }
+    
+    private void append(String id, String amount) {
+        bidJournal.append(JournaledBid.builder()
+            .id(id)
+            .auctionId("auction-1")
+            .bidderId("bidder-" + id)
+            .amount(new BigDecimal(amount))
+            .bidType(Bid.BidType.MANUAL)
+            .status(Bid.BidStatus.ACCEPTED)
+            .bidTime(LocalDateTime.now())
+            .isProxyBid(false)
+            .source(Bid.BidSource.WEB)
+            .build());
+    }
+    
+    private String status(String bidId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM bids WHERE id = ?", String.class, bidId);
+    }
+    
+    private long version() {
+        return jdbcTemplate.queryForObject("SELECT version FROM auctions WHERE id = 'auction-1'", Long.class);
+    }
+    
+    private Map<String, Object> auction() {
+        return jdbcTemplate.queryForMap(
+            "SELECT leading_bid_id, current_price, bid_count FROM auctions WHERE id = 'auction-1'");
+    }
+}
@@ -0,0 +1,151 @@
+package com.auctionaggregator.auction.bidding;
+
+import com.auctionaggregator.auction.config.BiddingConfiguration;
+import com.auctionaggregator.auction.entity.Bid;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BidJournalTest {
+    
+    @TempDir
+    Path directory;
+    
+    private final List<BidJournal> opened = new ArrayList<>();
+    
+    @AfterEach
+    void tearDown() {
+        opened.forEach(BidJournal::close);
+    }
+    
+    @Test
+    void testTornTailIsTreatedAsEndOfLog() throws IOException {
+        BidJournal journal = open(64 * 1024);
+        append(journal, "bid-1", "bid-2", "bid-3");
+        journal.sync();
+        List<BidJournal.JournalEntry> written = journal.readFrom(journal.getCheckpoint(), 10);
+        journal.close();
+        
+        // Flip a payload byte of the last record, as a crash in the middle of writing it would
+        JournalPosition lastRecord = written.get(1).next();
+        try (FileChannel channel = FileChannel.open(segment(lastRecord.segment()), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'#'}), lastRecord.offset() + 12);
+        }
+        
+        BidJournal reopened = open(64 * 1024);
+        assertThat(ids(reopened.readFrom(reopened.getCheckpoint(), 10))).containsExactly("bid-1", "bid-2");
+        
+        // New records overwrite the torn one instead of hiding behind it
+        append(reopened, "bid-4");
+        reopened.sync();
+        assertThat(ids(reopened.readFrom(reopened.getCheckpoint(), 10))).containsExactly("bid-1", "bid-2", "bid-4");
+    }
+    
+    @Test
+    void testReadingFollowsRollMarkersAcrossSegments() throws IOException {
+        BidJournal journal = open(1024);
+        append(journal, "bid-1", "bid-2", "bid-3", "bid-4", "bid-5", "bid-6", "bid-7", "bid-8");
+        journal.sync();
+        
+        assertThat(segmentCount()).isGreaterThan(2);
+        assertThat(ids(journal.readFrom(journal.getCheckpoint(), 100)))
+            .containsExactly("bid-1", "bid-2", "bid-3", "bid-4", "bid-5", "bid-6", "bid-7", "bid-8");
+        
+        journal.close();
+        BidJournal reopened = open(1024);
+        append(reopened, "bid-9");
+        reopened.sync();
+        assertThat(ids(reopened.readFrom(reopened.getCheckpoint(), 100)))
+            .containsExactly("bid-1", "bid-2", "bid-3", "bid-4", "bid-5", "bid-6", "bid-7", "bid-8", "bid-9");
+    }
+    
+    @Test
+    void testReplayStartsAfterTheCheckpoint() throws IOException {
+        BidJournal journal = open(1024);
+        append(journal, "bid-1", "bid-2", "bid-3", "bid-4", "bid-5", "bid-6");
+        journal.sync();
+        List<BidJournal.JournalEntry> written = journal.readFrom(journal.getCheckpoint(), 100);
+        journal.commitCheckpoint(written.get(3).next());
+        journal.close();
+        
+        BidJournal reopened = open(1024);
+        assertThat(reopened.getCheckpoint()).isEqualTo(written.get(3).next());
+        assertThat(ids(reopened.readFrom(reopened.getCheckpoint(), 100))).containsExactly("bid-5", "bid-6");
+        for (long old = 0; old < reopened.getCheckpoint().segment(); old++) {
+            assertThat(segment(old)).doesNotExist();
+        }
+    }
+    
+    @Test
+    void testSyncMakesAppendedRecordsReadable() {
+        BidJournal journal = open(64 * 1024);
+        append(journal, "bid-1");
+        
+        journal.sync();
+        
+        assertThat(ids(journal.readFrom(journal.getCheckpoint(), 10))).containsExactly("bid-1");
+    }
+    
+    private BidJournal open(int segmentSize) {
+        BiddingConfiguration configuration = new BiddingConfiguration();
+        configuration.getJournal().setEnabled(true);
+        configuration.getJournal().setDirectory(directory.toString());
+        configuration.getJournal().setSegmentSize(segmentSize);
+        // Long enough that only sync() and close() flush
+        configuration.getJournal().setFlushInterval(60_000);
+        
+        BidJournal journal = new BidJournal(configuration, new ObjectMapper().findAndRegisterModules());
+        try {
+            journal.init();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        opened.add(journal);
+        return journal;
+    }
+    
+    private static void append(BidJournal journal, String... ids) {
+        for (String id : ids) {
+            journal.append(JournaledBid.builder()
+                .id(id)
+                .auctionId("auction-1")
+                .bidderId("bidder-1")
+                .amount(new BigDecimal("100.00"))
+                .bidType(Bid.BidType.MANUAL)
+                .status(Bid.BidStatus.ACCEPTED)
+                .bidTime(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .isProxyBid(false)
+                .source(Bid.BidSource.WEB)
+                .build());
+        }
+    }
+    
+    private static List<String> ids(List<BidJournal.JournalEntry> entries) {
+        return entries.stream().map(entry -> entry.bid().getId()).toList();
+    }
+    
+    private Path segment(long index) {
+        return directory.resolve(String.format("bids-%020d.journal", index));
+    }
+    
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".journal")).count();
+        }
+    }
+}
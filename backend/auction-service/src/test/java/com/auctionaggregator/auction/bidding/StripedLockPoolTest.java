@@ -0,0 +1,69 @@
+package com.auctionaggregator.auction.bidding;
+
+import com.auctionaggregator.auction.config.BiddingConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StripedLockPoolTest {
+    
+    private SimpleMeterRegistry meterRegistry;
+    private StripedLockPool lockPool;
+    
+    @BeforeEach
+    void setUp() {
+        BiddingConfiguration configuration = new BiddingConfiguration();
+        configuration.setLockStripes(100);
+        meterRegistry = new SimpleMeterRegistry();
+        lockPool = new StripedLockPool(configuration, meterRegistry);
+    }
+    
+    @Test
+    void testPoolSizeIsRoundedToPowerOfTwo() {
+        assertThat(lockPool.size()).isEqualTo(128);
+    }
+    
+    @Test
+    void testSameKeyAlwaysMapsToSameLock() {
+        assertThat(lockPool.lockFor("auction-1")).isSameAs(lockPool.lockFor("auction-1"));
+    }
+    
+    @Test
+    void testConcurrentActionsOnSameKeyAreSerialized() throws Exception {
+        int threads = 16;
+        int iterations = 500;
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < iterations; i++) {
+                    lockPool.withLock("hot-auction", () -> {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        inside.decrementAndGet();
+                        return null;
+                    });
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxInside.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("auction.bid.lock.wait").timer().count())
+            .isEqualTo((long) threads * iterations);
+    }
+}
@@ -0,0 +1,80 @@
+package com.auctionaggregator.auction.cluster;
+
+import com.auctionaggregator.auction.config.ClusterConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClusterMembershipTest {
+    
+    private static final List<String> KEYS = IntStream.range(0, 3000)
+        .mapToObj(i -> UUID.nameUUIDFromBytes(("auction-" + i).getBytes()).toString())
+        .toList();
+    
+    @Test
+    void testEveryKeyHasExactlyOneOwner() {
+        List<String> members = List.of("node-a", "node-b", "node-c");
+        List<LocalClusterMembership> nodes = members.stream()
+            .map(member -> node(member, members))
+            .toList();
+        
+        for (String key : KEYS) {
+            assertThat(nodes.stream().filter(node -> node.owns(key)).count()).isEqualTo(1);
+        }
+    }
+    
+    @Test
+    void testKeysAreSpreadEvenly() {
+        Map<String, Integer> counts = new HashMap<>();
+        List<String> members = List.of("node-a", "node-b", "node-c");
+        KEYS.forEach(key -> counts.merge(RendezvousHashing.owner(key, members), 1, Integer::sum));
+        
+        assertThat(counts).hasSize(3);
+        counts.values().forEach(count -> assertThat(count).isBetween(800, 1200));
+    }
+    
+    @Test
+    void testOnlyKeysOfDepartedNodeMove() {
+        List<String> before = List.of("node-a", "node-b", "node-c");
+        List<String> after = List.of("node-a", "node-b");
+        
+        for (String key : KEYS) {
+            String oldOwner = RendezvousHashing.owner(key, before);
+            String newOwner = RendezvousHashing.owner(key, after);
+            if (!oldOwner.equals("node-c")) {
+                assertThat(newOwner).isEqualTo(oldOwner);
+            }
+        }
+    }
+    
+    @Test
+    void testMembershipChangePublishesEvent() {
+        List<Object> events = new ArrayList<>();
+        ClusterConfiguration configuration = new ClusterConfiguration();
+        configuration.setNodeId("node-a");
+        LocalClusterMembership membership = new LocalClusterMembership(configuration, events::add);
+        
+        assertThat(KEYS).allMatch(membership::owns);
+        
+        membership.setMembers(List.of("node-b", "node-a"));
+        
+        assertThat(membership.getMembers()).containsExactly("node-a", "node-b");
+        assertThat(events).containsExactly(new MembershipChangedEvent(List.of("node-a", "node-b")));
+        assertThat(KEYS).anyMatch(key -> !membership.owns(key));
+    }
+    
+    private LocalClusterMembership node(String nodeId, List<String> members) {
+        ClusterConfiguration configuration = new ClusterConfiguration();
+        configuration.setNodeId(nodeId);
+        LocalClusterMembership membership = new LocalClusterMembership(configuration, event -> { });
+        membership.setMembers(members);
+        return membership;
+    }
+}
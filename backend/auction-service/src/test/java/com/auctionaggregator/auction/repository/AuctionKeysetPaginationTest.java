@@ -0,0 +1,157 @@
+package com.auctionaggregator.auction.repository;
+
+import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.pagination.AuctionSort;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Walks every {@link AuctionSort} page by page and checks the result against
+ * a single ordered query, with duplicate and null sort values in the data.
+ * The SQL of a page is captured and explained to check that the position
+ * bounds the index scan rather than filtering it.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.auctionaggregator.auction.repository.AuctionSearchIndexBenchmarkTest$CapturingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class AuctionKeysetPaginationTest {
+    
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    static {
+        postgres.start();
+    }
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+    
+    @AfterAll
+    static void tearDown() {
+        postgres.stop();
+    }
+    
+    @Autowired
+    private AuctionRepository auctionRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @BeforeEach
+    void setUp() {
+        // Few distinct prices and end times so that the id has to break ties, and some auctions without a price
+        jdbcTemplate.execute(
+            "INSERT INTO auctions (id, title, seller_id, status, auction_type, starting_price, current_price, " +
+            "bid_increment, start_time, end_time, source, created_at) " +
+            "SELECT 'auction-' || lpad(i::text, 3, '0'), 'Lot ' || i, 'seller', " +
+            "  CASE WHEN i % 4 = 0 THEN 'ENDED' ELSE 'ACTIVE' END, 'STANDARD', 100, " +
+            "  CASE WHEN i % 9 = 0 THEN NULL ELSE 100 + (i % 7) * 10 END, 10, " +
+            "  now() - interval '1 day', date_trunc('hour', now()) + (i % 5) * interval '1 hour', 'Internal', " +
+            "  date_trunc('day', now()) - (i % 6) * interval '1 minute' " +
+            "FROM generate_series(1, 120) i");
+    }
+    
+    @ParameterizedTest
+    @EnumSource(AuctionSort.class)
+    void testPagesFollowTheFullOrder(AuctionSort sort) {
+        String direction = sort.isAscending() ? "ASC" : "DESC";
+        String column = column(sort);
+        List<String> expected = jdbcTemplate.queryForList(
+            "SELECT id FROM auctions WHERE status = 'ACTIVE' ORDER BY " + column + " " + direction + ", id " + direction,
+            String.class);
+        
+        List<String> walked = new ArrayList<>();
+        AuctionSort.Position after = null;
+        List<Auction> page;
+        do {
+            page = auctionRepository.findSlice(AuctionSpecifications.hasStatus(Auction.AuctionStatus.ACTIVE),
+                sort, after, 7);
+            page.forEach(auction -> walked.add(auction.getId()));
+            if (!page.isEmpty()) {
+                // Round trip through the opaque cursor the API hands out
+                after = sort.decode(sort.cursorAfter(page.get(page.size() - 1)));
+            }
+            entityManager.clear();
+        } while (page.size() == 7);
+        
+        assertThat(walked).containsExactlyElementsOf(expected);
+    }
+    
+    @ParameterizedTest
+    @EnumSource(AuctionSort.class)
+    void testPositionBoundsTheIndexScan(AuctionSort sort) {
+        Auction middle = auctionRepository.findSlice(AuctionSpecifications.hasStatus(Auction.AuctionStatus.ACTIVE),
+            sort, null, 40).get(39);
+        AuctionSort.Position after = sort.decode(sort.cursorAfter(middle));
+        
+        assertIndexBound(sort, after, column(sort));
+    }
+    
+    @Test
+    void testNullPositionBoundsTheIndexScan() {
+        assertIndexBound(AuctionSort.PRICE_HIGH_TO_LOW, new AuctionSort.Position(null, "auction-999"),
+            "current_price IS NULL");
+    }
+    
+    private void assertIndexBound(AuctionSort sort, AuctionSort.Position after, String bound) {
+        AuctionSearchIndexBenchmarkTest.CapturingInspector.statements.clear();
+        auctionRepository.findSlice(AuctionSpecifications.hasStatus(Auction.AuctionStatus.ACTIVE), sort, after, 7);
+        String sql = AuctionSearchIndexBenchmarkTest.CapturingInspector.statements.get(0);
+        
+        // A sequential scan always wins on a few rows, so rule it out to see which index conditions the query offers
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        Object[] parameters = sql.contains("?") ? new Object[] {7} : new Object[0];
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters));
+        
+        assertThat(plan)
+            .as("plan for %s after %s:%n%s", sort, after, plan)
+            .doesNotContain("BitmapOr");
+        assertThat(plan.lines().filter(line -> line.contains("Index Cond")))
+            .as("plan for %s after %s:%n%s", sort, after, plan)
+            .anyMatch(line -> line.contains(bound));
+    }
+    
+    private static String column(AuctionSort sort) {
+        return switch (sort.getAttribute()) {
+            case "endTime" -> "end_time";
+            case "createdAt" -> "created_at";
+            default -> "current_price";
+        };
+    }
+    
+    @Test
+    void testMalformedCursorIsRejected() {
+        assertThatThrownBy(() -> AuctionSort.PRICE_LOW_TO_HIGH.decode("not a cursor"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AuctionSort.NEWEST.decode(AuctionSort.PRICE_LOW_TO_HIGH.cursorAfter(
+            Auction.builder().currentPrice(BigDecimal.TEN).build())))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,147 @@
+package com.auctionaggregator.auction.repository;
+
+import com.auctionaggregator.auction.dto.AuctionDTO;
+import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.mapper.AuctionMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that mapping a page of auctions to DTOs takes the same small number
+ * of statements whatever the page size, counted through Hibernate statistics.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.default_batch_fetch_size=100"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class AuctionPageQueryCountTest {
+    
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    static {
+        postgres.start();
+    }
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+    
+    @AfterAll
+    static void tearDown() {
+        postgres.stop();
+    }
+    
+    @Autowired
+    private AuctionRepository auctionRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private final AuctionMapper auctionMapper = Mappers.getMapper(AuctionMapper.class);
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute(
+            "INSERT INTO categories (id, name, slug) " +
+            "SELECT 'category-' || i, 'Category ' || i, 'category-' || i FROM generate_series(0, 4) i");
+        jdbcTemplate.execute(
+            "INSERT INTO auctions (id, title, description, seller_id, category_id, status, auction_type, " +
+            "starting_price, current_price, bid_increment, start_time, end_time, source) " +
+            "SELECT 'auction-' || i, 'Lot ' || i, 'Listing ' || i, 'seller-' || (i % 7), 'category-' || (i % 5), " +
+            "  'ACTIVE', 'STANDARD', 100, 100 + i, 10, now() - interval '1 day', now() + interval '1 day', 'Internal' " +
+            "FROM generate_series(1, 60) i");
+        jdbcTemplate.execute(
+            "INSERT INTO auction_details (id, auction_id, location_city) " +
+            "SELECT 'details-' || i, 'auction-' || i, 'City ' || i FROM generate_series(1, 60) i");
+        jdbcTemplate.execute(
+            "INSERT INTO auction_images (id, auction_id, url, display_order) " +
+            "SELECT 'image-' || i || '-' || n, 'auction-' || i, 'https://images.example/' || i || '/' || n, n " +
+            "FROM generate_series(1, 60) i, generate_series(1, 3) n");
+        jdbcTemplate.execute(
+            "INSERT INTO auction_tags (auction_id, tag) " +
+            "SELECT 'auction-' || i, 'tag-' || n FROM generate_series(1, 60) i, generate_series(1, 2) n");
+        
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+    
+    @Test
+    void testSearchPageIsMappedInConstantQueries() {
+        long smallPage = countStatements(() -> mapPage(5));
+        long largePage = countStatements(() -> mapPage(50));
+        
+        // Page, count, images and tags
+        assertThat(largePage).isEqualTo(smallPage).isLessThanOrEqualTo(4);
+    }
+    
+    @Test
+    void testAuctionsLoadedByIdAreMappedInConstantQueries() {
+        List<String> ids = jdbcTemplate.queryForList("SELECT id FROM auctions ORDER BY id LIMIT 40", String.class);
+        
+        long statements = countStatements(() -> {
+            List<AuctionDTO> auctions = auctionRepository.findAllById(ids).stream().map(auctionMapper::toDTO).toList();
+            assertThat(auctions).hasSize(40).allSatisfy(auction -> {
+                assertThat(auction.getCategoryName()).startsWith("Category ");
+                assertThat(auction.getImageUrls()).hasSize(3);
+                assertThat(auction.getTags()).hasSize(2);
+            });
+        });
+        
+        // Auctions, images and tags
+        assertThat(statements).isLessThanOrEqualTo(3);
+    }
+    
+    private void mapPage(int size) {
+        Specification<Auction> spec = AuctionSpecifications.hasStatus(Auction.AuctionStatus.ACTIVE);
+        List<AuctionDTO> page = auctionRepository.findAll(spec, PageRequest.of(0, size, Sort.by("currentPrice")))
+            .map(auctionMapper::toDTO)
+            .getContent();
+        
+        assertThat(page).hasSize(size).allSatisfy(auction -> {
+            assertThat(auction.getCategoryName()).startsWith("Category ");
+            assertThat(auction.getImageUrls()).hasSize(3);
+            assertThat(auction.getTags()).hasSize(2);
+        });
+    }
+    
+    private long countStatements(Runnable action) {
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,206 @@
+package com.auctionaggregator.auction.repository;
+
+import com.auctionaggregator.auction.dto.AuctionSearchDTO;
+import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.search.GeoBox;
+import com.auctionaggregator.auction.search.Geohash;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that every search filter combination built by {@link AuctionSpecifications}
+ * is planned with an index against a realistically sized and skewed catalog.
+ * <p>
+ * Each case runs the query the service issues for a search: the count of a
+ * filtered page, or the ranked query of {@link AuctionRepositoryCustom#findIdsMatchingText}
+ * for free text. {@link CapturingInspector} records the SQL Hibernate generates
+ * for it, with criteria values inlined so that the statement can be explained
+ * as it is.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.auctionaggregator.auction.repository.AuctionSearchIndexBenchmarkTest$CapturingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AuctionSearchIndexBenchmarkTest {
+    
+    private static final int AUCTIONS = 200_000;
+    private static final int RANKED_LIMIT = 1000;
+    
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    static {
+        postgres.start();
+    }
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+    
+    @AfterAll
+    static void tearDown() {
+        postgres.stop();
+    }
+    
+    @Autowired
+    private AuctionRepository auctionRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    static Stream<Arguments> filterCombinations() {
+        BigDecimal low = new BigDecimal("1000.00");
+        BigDecimal high = new BigDecimal("1500.00");
+        String[] tags = {"tag-11", "tag-12"};
+        return Stream.of(
+            Arguments.of("query", AuctionSearchDTO.builder().query("vintage").build()),
+            Arguments.of("category", AuctionSearchDTO.builder().categoryId("category-7").build()),
+            Arguments.of("status and price", AuctionSearchDTO.builder()
+                .status(Auction.AuctionStatus.ACTIVE).minPrice(low).maxPrice(high).build()),
+            Arguments.of("price", AuctionSearchDTO.builder().minPrice(low).maxPrice(high).build()),
+            Arguments.of("category, status and price", AuctionSearchDTO.builder().categoryId("category-7")
+                .status(Auction.AuctionStatus.ACTIVE).minPrice(low).maxPrice(new BigDecimal("50000.00")).build()),
+            Arguments.of("source and status", AuctionSearchDTO.builder()
+                .source("source-3").status(Auction.AuctionStatus.ACTIVE).build()),
+            Arguments.of("location", AuctionSearchDTO.builder().location("City-42").build()),
+            Arguments.of("tags", AuctionSearchDTO.builder().tags(tags).build()),
+            Arguments.of("area", AuctionSearchDTO.builder().latitude(40.71).longitude(-74.01).radiusKm(25.0).build()),
+            Arguments.of("area and status", AuctionSearchDTO.builder()
+                .latitude(40.71).longitude(-74.01).radiusKm(25.0).status(Auction.AuctionStatus.ACTIVE).build()),
+            Arguments.of("query and category", AuctionSearchDTO.builder()
+                .query("vintage").categoryId("category-7").build()),
+            Arguments.of("everything", AuctionSearchDTO.builder().query("vintage").categoryId("category-7")
+                .status(Auction.AuctionStatus.ACTIVE).minPrice(low).maxPrice(high).source("source-3")
+                .location("City-42").tags(tags).build())
+        );
+    }
+    
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filterCombinations")
+    void testFilterCombinationUsesIndex(String name, AuctionSearchDTO search) {
+        Specification<Auction> spec = specification(search);
+        
+        // The count query of a page has to visit every match, so it is the one that must not scan
+        String sql = search.getQuery() != null
+            ? capture(() -> auctionRepository.findIdsMatchingText(search.getQuery(), spec, RANKED_LIMIT))
+            : capture(() -> auctionRepository.count(spec));
+        
+        // Row limits stay bind parameters even when values are inlined
+        Object[] parameters = sql.contains("?") ? new Object[] {RANKED_LIMIT} : new Object[0];
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters);
+        String planText = String.join("\n", plan);
+        
+        assertThat(planText)
+            .as("plan for %s:%n%s%n%s", name, sql, planText)
+            .doesNotContain("Seq Scan on auctions")
+            .doesNotContain("Seq Scan on auction_details")
+            .doesNotContain("Seq Scan on auction_tags");
+    }
+    
+    @Test
+    void testDatabaseGeohashMatchesJava() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT latitude, longitude, geohash FROM auction_details ORDER BY id LIMIT 1000");
+        
+        assertThat(rows).isNotEmpty().allSatisfy(row -> assertThat(row.get("geohash")).isEqualTo(Geohash.encode(
+            ((BigDecimal) row.get("latitude")).doubleValue(), ((BigDecimal) row.get("longitude")).doubleValue(),
+            Geohash.PRECISION)));
+    }
+    
+    /**
+     * The filters the service builds for a search, with a center turned into its covering area.
+     */
+    private static Specification<Auction> specification(AuctionSearchDTO search) {
+        GeoBox area = search.getLatitude() != null
+            ? GeoBox.around(search.getLatitude(), search.getLongitude(), search.getRadiusKm())
+            : null;
+        return AuctionSpecifications.fromSearch(search).and(AuctionSpecifications.withinArea(area));
+    }
+    
+    private static String capture(Runnable query) {
+        CapturingInspector.statements.clear();
+        query.run();
+        assertThat(CapturingInspector.statements).hasSize(1);
+        return CapturingInspector.statements.get(0);
+    }
+    
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("SELECT setseed(0.42)");
+        jdbcTemplate.execute(
+            "INSERT INTO categories (id, name, slug) " +
+            "SELECT 'category-' || i, 'Category ' || i, 'category-' || i FROM generate_series(0, 49) i");
+        
+        // Most scraped listings are closed; only a small share is live at any time
+        jdbcTemplate.execute(
+            "INSERT INTO auctions (id, title, description, seller_id, category_id, status, auction_type, " +
+            "starting_price, current_price, bid_increment, start_time, end_time, source) " +
+            "SELECT 'auction-' || i, " +
+            "  'Lot ' || i || CASE WHEN random() < 0.001 THEN ' vintage clock' ELSE ' ' || md5(i::text) END, " +
+            "  'Listing ' || md5((i * 31)::text), " +
+            "  'seller-' || (i % 5000), " +
+            "  'category-' || floor(random() * 50)::int, " +
+            "  CASE WHEN random() < 0.05 THEN 'ACTIVE' WHEN random() < 0.05 THEN 'ENDING_SOON' " +
+            "       WHEN random() < 0.5 THEN 'SOLD' ELSE 'ENDED' END, " +
+            "  'STANDARD', 100, round((random() * 100000)::numeric, 2), 100, " +
+            "  now() - interval '30 days', now() + (random() * interval '30 days'), " +
+            "  'source-' || floor(random() * 10)::int " +
+            "FROM generate_series(1, " + AUCTIONS + ") i");
+        
+        jdbcTemplate.execute(
+            "INSERT INTO auction_details (id, auction_id, location_city, location_state, location_country, " +
+            "  latitude, longitude) " +
+            "SELECT 'details-' || i, 'auction-' || i, 'City-' || floor(random() * 2000)::int, " +
+            "  'State-' || floor(random() * 200)::int, 'Country-' || floor(random() * 40)::int, " +
+            "  round((25 + random() * 24)::numeric, 8), round((-124 + random() * 57)::numeric, 8) " +
+            "FROM generate_series(1, " + AUCTIONS + ") i");
+        
+        jdbcTemplate.execute(
+            "INSERT INTO auction_tags (auction_id, tag) " +
+            "SELECT DISTINCT 'auction-' || i, 'tag-' || floor(random() * 500)::int " +
+            "FROM generate_series(1, " + AUCTIONS + ") i, generate_series(1, 3) n");
+        
+        jdbcTemplate.execute("ANALYZE");
+    }
+    
+    /**
+     * Records every statement Hibernate prepares, unchanged.
+     */
+    public static class CapturingInspector implements StatementInspector {
+        
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
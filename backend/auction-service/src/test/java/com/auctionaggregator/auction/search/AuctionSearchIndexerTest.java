@@ -0,0 +1,208 @@
+package com.auctionaggregator.auction.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.GetResponse;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.auctionaggregator.auction.config.SearchConfiguration;
+import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.repository.AuctionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AuctionSearchIndexerTest {
+    
+    private static ElasticsearchContainer elasticsearch;
+    private static RestClient restClient;
+    private static ElasticsearchClient client;
+    
+    private final Map<String, Auction> database = new HashMap<>();
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private AuctionRepository auctionRepository;
+    private SearchConfiguration searchConfiguration;
+    private AuctionSearchIndexer indexer;
+    
+    @BeforeAll
+    static void startElasticsearch() {
+        elasticsearch = new ElasticsearchContainer("docker.elastic.co/elasticsearch/elasticsearch:8.11.1")
+            .withEnv("xpack.security.enabled", "false");
+        elasticsearch.start();
+        
+        restClient = RestClient.builder(HttpHost.create(elasticsearch.getHttpHostAddress())).build();
+        client = newClient(restClient);
+    }
+    
+    @AfterAll
+    static void stopElasticsearch() throws IOException {
+        restClient.close();
+        elasticsearch.stop();
+    }
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        if (client.indices().exists(exists -> exists.index("auctions")).value()) {
+            client.indices().delete(delete -> delete.index("auctions"));
+        }
+        
+        auctionRepository = mock(AuctionRepository.class);
+        when(auctionRepository.findForIndexing(anyCollection())).thenAnswer(invocation -> {
+            List<String> ids = List.copyOf(invocation.getArgument(0));
+            return ids.stream().filter(database::containsKey).map(database::get).toList();
+        });
+        
+        searchConfiguration = new SearchConfiguration();
+        indexer = newIndexer(client);
+    }
+    
+    @Test
+    void testRepeatedUpdatesAreCoalescedIntoOneWrite() throws IOException {
+        database.put("auction-1", auction("auction-1", "Old tractor", 0));
+        indexer.enqueue("auction-1");
+        database.put("auction-1", auction("auction-1", "Restored tractor", 1));
+        indexer.enqueue("auction-1");
+        indexer.enqueue("auction-1");
+        
+        assertThat(indexer.getPendingCount()).isEqualTo(1);
+        assertThat(indexer.flush()).isTrue();
+        
+        verify(auctionRepository, times(1)).findForIndexing(anyCollection());
+        assertThat(indexedTitle("auction-1")).isEqualTo("Restored tractor");
+    }
+    
+    @Test
+    void testStaleVersionDoesNotOverwriteNewerDocument() throws IOException {
+        database.put("auction-1", auction("auction-1", "Newer title", 5));
+        indexer.enqueue("auction-1");
+        assertThat(indexer.flush()).isTrue();
+        
+        // Another replica read the row before the newer version committed
+        database.put("auction-1", auction("auction-1", "Older title", 4));
+        indexer.enqueue("auction-1");
+        assertThat(indexer.flush()).isTrue();
+        
+        assertThat(indexedTitle("auction-1")).isEqualTo("Newer title");
+        assertThat(indexer.getPendingCount()).isZero();
+    }
+    
+    @Test
+    void testMissingAuctionIsDeletedFromIndex() throws IOException {
+        database.put("auction-1", auction("auction-1", "Sold sedan", 0));
+        indexer.enqueue("auction-1");
+        assertThat(indexer.flush()).isTrue();
+        
+        database.remove("auction-1");
+        indexer.enqueue("auction-1");
+        assertThat(indexer.flush()).isTrue();
+        
+        assertThat(client.get(get -> get.index("auctions").id("auction-1"), Map.class).found()).isFalse();
+    }
+    
+    @Test
+    void testLargeQueueIsShippedInBulkBatches() throws IOException {
+        searchConfiguration.getIndexing().setBulkSize(10);
+        indexer = newIndexer(client);
+        for (int i = 0; i < 25; i++) {
+            database.put("auction-" + i, auction("auction-" + i, "Lot " + i, 0));
+            indexer.enqueue("auction-" + i);
+        }
+        
+        assertThat(indexer.flush()).isTrue();
+        
+        verify(auctionRepository, times(3)).findForIndexing(anyCollection());
+        client.indices().refresh(refresh -> refresh.index("auctions"));
+        assertThat(client.count(count -> count.index("auctions")).count()).isEqualTo(25);
+    }
+    
+    @Test
+    void testLagTracksOldestPendingChange() {
+        database.put("auction-1", auction("auction-1", "Generator", 0));
+        database.put("auction-2", auction("auction-2", "Laptop", 0));
+        indexer.enqueue("auction-1");
+        clock.addAndGet(2_000);
+        indexer.enqueue("auction-2");
+        indexer.enqueue("auction-1");
+        clock.addAndGet(1_000);
+        
+        assertThat(indexer.getLagMillis()).isEqualTo(3_000);
+        assertThat(indexer.flush()).isTrue();
+        assertThat(indexer.getLagMillis()).isZero();
+    }
+    
+    @Test
+    void testFailedFlushKeepsChangesQueued() throws IOException {
+        try (RestClient unreachable = RestClient.builder(HttpHost.create("http://localhost:1")).build()) {
+            AuctionSearchIndexer offline = newIndexer(newClient(unreachable));
+            database.put("auction-1", auction("auction-1", "Villa", 0));
+            offline.enqueue("auction-1");
+            clock.addAndGet(500);
+            
+            assertThat(offline.flush()).isFalse();
+            assertThat(offline.getPendingCount()).isEqualTo(1);
+            assertThat(offline.getLagMillis()).isEqualTo(500);
+        }
+    }
+    
+    private AuctionSearchIndexer newIndexer(ElasticsearchClient elasticsearchClient) {
+        return new AuctionSearchIndexer(elasticsearchClient, auctionRepository,
+            TransactionOperations.withoutTransaction(), searchConfiguration, new SimpleMeterRegistry(), clock::get);
+    }
+    
+    private static ElasticsearchClient newClient(RestClient restClient) {
+        ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return new ElasticsearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper(objectMapper)));
+    }
+    
+    @SuppressWarnings("rawtypes")
+    private String indexedTitle(String auctionId) throws IOException {
+        GetResponse<Map> response = client.get(get -> get.index("auctions").id(auctionId), Map.class);
+        assertThat(response.found()).isTrue();
+        return (String) response.source().get("title");
+    }
+    
+    private Auction auction(String id, String title, long version) {
+        Auction auction = Auction.builder()
+            .title(title)
+            .description("Listed for the indexer test")
+            .sellerId("seller-1")
+            .status(Auction.AuctionStatus.ACTIVE)
+            .auctionType(Auction.AuctionType.STANDARD)
+            .startingPrice(new BigDecimal("100.00"))
+            .currentPrice(new BigDecimal("150.00"))
+            .bidIncrement(new BigDecimal("10.00"))
+            .startTime(LocalDateTime.now().minusDays(1))
+            .endTime(LocalDateTime.now().plusDays(1))
+            .source("Internal")
+            .tags(List.of("test"))
+            .build();
+        auction.setId(id);
+        auction.setVersion(version);
+        return auction;
+    }
+}
@@ -0,0 +1,106 @@
+package com.auctionaggregator.auction.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FacetIndexTest {
+    
+    private FacetIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new FacetIndex();
+        index.upsert(document("auction-1", "Copart", "cars", "ACTIVE", "red", "diesel"));
+        index.upsert(document("auction-2", "Copart", "cars", "ENDED", "red"));
+        index.upsert(document("auction-3", "GeM", "machinery", "ACTIVE", "diesel"));
+        index.upsert(document("auction-4", "GeM", "cars", "ACTIVE"));
+    }
+    
+    @Test
+    void testCountsWithoutFilters() {
+        Map<Facet, List<FacetCount>> counts = index.count(filters(null, null, null), null, 10);
+        
+        assertThat(counts.get(Facet.SOURCE)).containsExactly(new FacetCount("Copart", 2), new FacetCount("GeM", 2));
+        assertThat(counts.get(Facet.CATEGORY)).containsExactly(new FacetCount("cars", 3), new FacetCount("machinery", 1));
+        assertThat(counts.get(Facet.STATUS)).containsExactly(new FacetCount("ACTIVE", 3), new FacetCount("ENDED", 1));
+        assertThat(counts.get(Facet.TAG)).containsExactly(new FacetCount("diesel", 2), new FacetCount("red", 2));
+    }
+    
+    @Test
+    void testFilteredFacetIgnoresItsOwnFilter() {
+        Map<Facet, List<FacetCount>> counts = index.count(filters("Copart", null, "ACTIVE"), null, 10);
+        
+        // Source counts apply only the status filter, status counts only the source filter
+        assertThat(counts.get(Facet.SOURCE)).containsExactly(new FacetCount("GeM", 2), new FacetCount("Copart", 1));
+        assertThat(counts.get(Facet.STATUS)).containsExactly(new FacetCount("ACTIVE", 1), new FacetCount("ENDED", 1));
+        assertThat(counts.get(Facet.CATEGORY)).containsExactly(new FacetCount("cars", 1));
+        assertThat(counts.get(Facet.TAG)).containsExactly(new FacetCount("diesel", 1), new FacetCount("red", 1));
+    }
+    
+    @Test
+    void testCountsRestrictedToTextMatches() {
+        Map<Facet, List<FacetCount>> counts = index.count(filters(null, null, null),
+            List.of("auction-2", "auction-3", "unknown"), 10);
+        
+        assertThat(counts.get(Facet.SOURCE)).containsExactly(new FacetCount("Copart", 1), new FacetCount("GeM", 1));
+    }
+    
+    @Test
+    void testMaxValuesKeepsMostFrequent() {
+        Map<Facet, List<FacetCount>> counts = index.count(filters(null, null, null), null, 1);
+        
+        assertThat(counts.get(Facet.CATEGORY)).containsExactly(new FacetCount("cars", 3));
+    }
+    
+    @Test
+    void testMatchingIntersectsEveryFilter() {
+        assertThat(index.matching(filters(null, null, null))).isNull();
+        assertThat(ordinalsToIds(index.matching(filters("GeM", "cars", "ACTIVE")))).containsExactly("auction-4");
+        assertThat(ordinalsToIds(index.matching(new CatalogQuery(null, null, null, null, List.of("red", "diesel")))))
+            .containsExactly("auction-1");
+        assertThat(index.matching(filters("Unknown", null, null)).isEmpty()).isTrue();
+    }
+    
+    @Test
+    void testUpdatesMoveAuctionBetweenValues() {
+        // The auction ends
+        index.upsert(document("auction-1", "Copart", "cars", "ENDED", "red", "diesel"));
+        
+        Map<Facet, List<FacetCount>> counts = index.count(filters(null, null, null), null, 10);
+        assertThat(counts.get(Facet.STATUS)).containsExactly(new FacetCount("ACTIVE", 2), new FacetCount("ENDED", 2));
+        assertThat(index.size()).isEqualTo(4);
+    }
+    
+    @Test
+    void testRemovedAuctionIsNotCountedAndOrdinalIsReused() {
+        int ordinal = index.ordinalOf("auction-3");
+        assertThat(index.remove("auction-3")).isTrue();
+        assertThat(index.remove("auction-3")).isFalse();
+        
+        Map<Facet, List<FacetCount>> counts = index.count(filters(null, null, null), null, 10);
+        assertThat(counts.get(Facet.CATEGORY)).containsExactly(new FacetCount("cars", 3));
+        
+        assertThat(index.upsert(document("auction-5", "GeM", "machinery", "ACTIVE"))).isEqualTo(ordinal);
+        assertThat(index.document(ordinal).id()).isEqualTo("auction-5");
+    }
+    
+    private List<String> ordinalsToIds(OrdinalBitmap bitmap) {
+        List<String> ids = new ArrayList<>();
+        bitmap.forEach(ordinal -> ids.add(index.document(ordinal).id()));
+        return ids;
+    }
+    
+    private CatalogQuery filters(String source, String categoryId, String status) {
+        return new CatalogQuery(null, source, categoryId, status, null);
+    }
+    
+    private CatalogDocument document(String id, String source, String categoryId, String status, String... tags) {
+        return new CatalogDocument(id, "Lot " + id, null, List.of(tags), source, categoryId, status);
+    }
+}
@@ -0,0 +1,96 @@
+package com.auctionaggregator.auction.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class GeohashTest {
+    
+    @Test
+    void testEncodeMatchesReferenceHashes() {
+        assertThat(Geohash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+        assertThat(Geohash.encode(-90, -180, 5)).isEqualTo("00000");
+        assertThat(Geohash.encode(90, 180, 5)).isEqualTo("zzzzz");
+    }
+    
+    @Test
+    void testDistance() {
+        // Berlin to Paris
+        assertThat(Geohash.distanceKm(52.52, 13.405, 48.8566, 2.3522)).isCloseTo(877.5, within(1.0));
+        assertThat(Geohash.distanceKm(10, 20, 10, 20)).isZero();
+    }
+    
+    @Test
+    void testCoverContainsEveryPointOfTheBox() {
+        Random random = new Random(11);
+        for (int i = 0; i < 2_000; i++) {
+            double latitude = random.nextDouble() * 170 - 85;
+            double longitude = random.nextDouble() * 360 - 180;
+            double radiusKm = Math.pow(10, random.nextDouble() * 3);
+            GeoBox box = GeoBox.around(latitude, longitude, radiusKm);
+            List<Geohash.Range> cells = Geohash.cover(box);
+            
+            assertThat(cells).hasSizeLessThanOrEqualTo(Geohash.MAX_COVER_CELLS);
+            for (int j = 0; j < 20; j++) {
+                double pointLatitude = box.south() + random.nextDouble() * (box.north() - box.south());
+                double width = box.crossesAntimeridian() ? box.east() + 360 - box.west() : box.east() - box.west();
+                double pointLongitude = box.west() + random.nextDouble() * width;
+                if (pointLongitude > 180) {
+                    pointLongitude -= 360;
+                }
+                String hash = Geohash.encode(pointLatitude, pointLongitude, Geohash.PRECISION);
+                
+                assertThat(cells)
+                    .as("%s in %s", hash, box)
+                    .anyMatch(cell -> hash.compareTo(cell.from()) >= 0 && hash.compareTo(cell.to()) < 0);
+            }
+        }
+    }
+    
+    @Test
+    void testAdjacentCellsAreMerged() {
+        List<Geohash.Range> cells = Geohash.cover(GeoBox.around(52.52, 13.405, 10));
+        
+        for (int i = 1; i < cells.size(); i++) {
+            assertThat(cells.get(i).from()).isGreaterThan(cells.get(i - 1).to());
+        }
+    }
+    
+    @Test
+    void testBoxAroundPointCoversTheCircle() {
+        GeoBox box = GeoBox.around(40.71, -74.01, 25);
+        
+        assertThat(box.contains(40.71, -74.01)).isTrue();
+        assertThat(Geohash.distanceKm(40.71, -74.01, box.north(), -74.01)).isCloseTo(25, within(0.01));
+        assertThat(Geohash.distanceKm(40.71, -74.01, 40.71, box.east())).isGreaterThanOrEqualTo(25 - 0.01);
+    }
+    
+    @Test
+    void testBoxAcrossAntimeridian() {
+        GeoBox box = GeoBox.around(-17.7, 179.9, 50);
+        
+        assertThat(box.crossesAntimeridian()).isTrue();
+        assertThat(box.contains(-17.7, -179.9)).isTrue();
+        assertThat(box.contains(-17.7, 0)).isFalse();
+    }
+    
+    @Test
+    void testBoxAroundPoleSpansAllLongitudes() {
+        GeoBox box = GeoBox.around(89.9, 10, 50);
+        
+        assertThat(box.west()).isEqualTo(-180);
+        assertThat(box.east()).isEqualTo(180);
+        assertThat(box.north()).isEqualTo(90);
+    }
+    
+    @Test
+    void testInvalidBoxIsRejected() {
+        assertThatThrownBy(() -> new GeoBox(10, 0, 5, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new GeoBox(0, -200, 5, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,128 @@
+package com.auctionaggregator.auction.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InvertedIndexTest {
+    
+    private InvertedIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex(1.2, 0.75);
+    }
+    
+    @Test
+    void testTitleMatchOutranksDescriptionMatch() {
+        index.upsert(document("auction-1", "Office chairs", "Includes a tractor manual", List.of()));
+        index.upsert(document("auction-2", "John Deere tractor", "Runs well", List.of()));
+        index.upsert(document("auction-3", "Laptop", "Barely used", List.of()));
+        
+        assertThat(ids(query("tractor"))).containsExactly("auction-2", "auction-1");
+    }
+    
+    @Test
+    void testRareTermsWeighMoreThanCommonOnes() {
+        index.upsert(document("auction-1", "Vintage car", null, List.of()));
+        index.upsert(document("auction-2", "Blue car", null, List.of()));
+        index.upsert(document("auction-3", "Red car", null, List.of()));
+        index.upsert(document("auction-4", "Vintage clock", null, List.of()));
+        
+        List<InvertedIndex.Hit> hits = index.search(query("vintage car"), 10);
+        
+        assertThat(hits.get(0).auctionId()).isEqualTo("auction-1");
+        assertThat(hits.get(1).auctionId()).isEqualTo("auction-4");
+        assertThat(hits).hasSize(4);
+    }
+    
+    @Test
+    void testShorterFieldsRankHigher() {
+        index.upsert(document("auction-1", "Generator", null, List.of()));
+        index.upsert(document("auction-2", "Generator with spare parts and trailer", null, List.of()));
+        
+        assertThat(ids(query("generator"))).containsExactly("auction-1", "auction-2");
+    }
+    
+    @Test
+    void testFiltersRestrictCandidates() {
+        index.upsert(new CatalogDocument("auction-1", "Sedan", null, List.of("red", "diesel"), "Copart", "cars", "ACTIVE"));
+        index.upsert(new CatalogDocument("auction-2", "Sedan", null, List.of("red"), "Copart", "cars", "ENDED"));
+        index.upsert(new CatalogDocument("auction-3", "Sedan", null, List.of("red", "diesel"), "GeM", "cars", "ACTIVE"));
+        
+        assertThat(ids(new CatalogQuery("sedan", "Copart", null, null, null)))
+            .containsExactlyInAnyOrder("auction-1", "auction-2");
+        assertThat(ids(new CatalogQuery("sedan", null, "cars", "ACTIVE", List.of("red", "diesel"))))
+            .containsExactlyInAnyOrder("auction-1", "auction-3");
+        assertThat(ids(new CatalogQuery("sedan", "Copart", null, null, List.of("diesel"))))
+            .containsExactly("auction-1");
+        assertThat(ids(new CatalogQuery("sedan", "Unknown", null, null, null))).isEmpty();
+    }
+    
+    @Test
+    void testTagsAreSearchable() {
+        index.upsert(document("auction-1", "Lot 17", null, List.of("excavator")));
+        
+        assertThat(ids(query("excavator"))).containsExactly("auction-1");
+    }
+    
+    @Test
+    void testUpsertReplacesPreviousPostings() {
+        index.upsert(new CatalogDocument("auction-1", "Old title", null, List.of("red"), "Copart", null, "ACTIVE"));
+        index.upsert(new CatalogDocument("auction-1", "New title", null, List.of("blue"), "Copart", null, "ENDED"));
+        
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(ids(query("old"))).isEmpty();
+        assertThat(ids(query("new"))).containsExactly("auction-1");
+        assertThat(ids(new CatalogQuery("title", null, null, "ACTIVE", null))).isEmpty();
+        assertThat(ids(new CatalogQuery("title", null, null, null, List.of("blue")))).containsExactly("auction-1");
+    }
+    
+    @Test
+    void testRemovedDocumentsAreNotFoundAndOrdinalsAreReused() {
+        index.upsert(document("auction-1", "Villa", null, List.of()));
+        index.upsert(document("auction-2", "Villa", null, List.of()));
+        
+        assertThat(index.remove("auction-1")).isTrue();
+        assertThat(index.remove("auction-1")).isFalse();
+        index.upsert(document("auction-3", "Farmhouse", null, List.of()));
+        
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(ids(query("villa"))).containsExactly("auction-2");
+        assertThat(ids(query("farmhouse"))).containsExactly("auction-3");
+    }
+    
+    @Test
+    void testLimitKeepsBestHits() {
+        for (int i = 0; i < 20; i++) {
+            index.upsert(document("auction-" + i, "Laptop" + " bag".repeat(i), null, List.of()));
+        }
+        
+        assertThat(ids(query("laptop"), 3)).containsExactly("auction-0", "auction-1", "auction-2");
+    }
+    
+    @Test
+    void testTokenizerIgnoresCaseSymbolsAndStopWords() {
+        assertThat(InvertedIndex.tokenize("The 4x4 TRUCK, with-winch!")).containsExactly("4x4", "truck", "winch");
+        assertThat(InvertedIndex.tokenize("  ")).isEmpty();
+    }
+    
+    private CatalogDocument document(String id, String title, String description, List<String> tags) {
+        return new CatalogDocument(id, title, description, tags, "Internal", null, "ACTIVE");
+    }
+    
+    private CatalogQuery query(String text) {
+        return new CatalogQuery(text, null, null, null, null);
+    }
+    
+    private List<String> ids(CatalogQuery query) {
+        return ids(query, 100);
+    }
+    
+    private List<String> ids(CatalogQuery query, int limit) {
+        return index.search(query, limit).stream().map(InvertedIndex.Hit::auctionId).toList();
+    }
+}
@@ -0,0 +1,96 @@
+package com.auctionaggregator.auction.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OrdinalBitmapTest {
+    
+    @Test
+    void testAddRemoveAndContains() {
+        OrdinalBitmap bitmap = OrdinalBitmap.of(3, 70_000, 1);
+        
+        assertThat(bitmap.contains(1)).isTrue();
+        assertThat(bitmap.contains(70_000)).isTrue();
+        assertThat(bitmap.contains(2)).isFalse();
+        assertThat(bitmap.cardinality()).isEqualTo(3);
+        
+        assertThat(bitmap.remove(70_000)).isTrue();
+        assertThat(bitmap.remove(70_000)).isFalse();
+        assertThat(bitmap.contains(70_000)).isFalse();
+        assertThat(values(bitmap)).containsExactly(1, 3);
+    }
+    
+    @Test
+    void testDenseContainerConvertsBackWhenItShrinks() {
+        OrdinalBitmap bitmap = new OrdinalBitmap();
+        for (int i = 0; i < 10_000; i++) {
+            bitmap.add(i * 2);
+        }
+        assertThat(bitmap.cardinality()).isEqualTo(10_000);
+        
+        for (int i = 0; i < 9_990; i++) {
+            bitmap.remove(i * 2);
+        }
+        assertThat(bitmap.cardinality()).isEqualTo(10);
+        assertThat(values(bitmap)).startsWith(19_980, 19_982).endsWith(19_998);
+    }
+    
+    @Test
+    void testIntersectionMatchesReferenceSet() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            // Mix sparse and dense containers across several high keys
+            int range = 1 << (12 + random.nextInt(8));
+            int count = random.nextInt(20_000);
+            OrdinalBitmap left = new OrdinalBitmap();
+            OrdinalBitmap right = new OrdinalBitmap();
+            TreeSet<Integer> leftReference = new TreeSet<>();
+            TreeSet<Integer> rightReference = new TreeSet<>();
+            for (int i = 0; i < count; i++) {
+                int a = random.nextInt(range);
+                int b = random.nextInt(range);
+                left.add(a);
+                leftReference.add(a);
+                right.add(b);
+                rightReference.add(b);
+            }
+            TreeSet<Integer> expected = new TreeSet<>(leftReference);
+            expected.retainAll(rightReference);
+            
+            assertThat(left.cardinality()).isEqualTo(leftReference.size());
+            assertThat(values(left.and(right))).containsExactlyElementsOf(expected);
+            assertThat(left.andCardinality(right)).isEqualTo(expected.size());
+            assertThat(right.andCardinality(left)).isEqualTo(expected.size());
+        }
+    }
+    
+    @Test
+    void testCopyIsIndependent() {
+        OrdinalBitmap original = OrdinalBitmap.of(1, 2, 3);
+        OrdinalBitmap copy = original.copy();
+        copy.add(4);
+        copy.remove(1);
+        
+        assertThat(values(original)).containsExactly(1, 2, 3);
+        assertThat(values(copy)).containsExactly(2, 3, 4);
+    }
+    
+    @Test
+    void testNegativeValuesAreRejected() {
+        assertThatThrownBy(() -> new OrdinalBitmap().add(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(new OrdinalBitmap().contains(-1)).isFalse();
+    }
+    
+    private List<Integer> values(OrdinalBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        return values;
+    }
+}
@@ -0,0 +1,112 @@
+package com.auctionaggregator.auction.service;
+
+import com.auctionaggregator.auction.config.BiddingConfiguration;
+import com.auctionaggregator.auction.entity.Auction;
+import com.auctionaggregator.auction.entity.Bid;
+import com.auctionaggregator.auction.repository.BidRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProxyBiddingServiceTest {
+    
+    private ProxyBiddingService proxyBiddingService;
+    private Auction auction;
+    
+    @BeforeEach
+    void setUp() {
+        BidRepository bidRepository = mock(BidRepository.class);
+        when(bidRepository.findProxyBids(anyString(), anyList())).thenReturn(List.of());
+        when(bidRepository.save(any(Bid.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        proxyBiddingService = new ProxyBiddingService(bidRepository, new BiddingConfiguration());
+        
+        auction = Auction.builder()
+            .bidIncrement(new BigDecimal("10"))
+            .currentPrice(new BigDecimal("100"))
+            .build();
+        auction.setId("auction-1");
+    }
+    
+    @Test
+    void testManualBidIsAnsweredByStrongerProxyInOneStep() {
+        Bid proxy = bid("alice", "110", "500", LocalDateTime.now().minusMinutes(5));
+        proxyBiddingService.registerProxyBid(auction, proxy);
+        
+        Bid manual = bid("bob", "200", null, LocalDateTime.now());
+        auction.setCurrentPrice(manual.getAmount());
+        
+        Optional<Bid> autoBid = proxyBiddingService.processProxyBidsForAuction(auction, manual);
+        
+        assertThat(autoBid).isPresent();
+        assertThat(autoBid.get().getBidderId()).isEqualTo("alice");
+        assertThat(autoBid.get().getAmount()).isEqualByComparingTo("210");
+        assertThat(autoBid.get().getParentBidId()).isEqualTo(proxy.getId());
+        assertThat(autoBid.get().getBidType()).isEqualTo(Bid.BidType.AUTOBID);
+    }
+    
+    @Test
+    void testProxyWarSettlesAtRunnerUpCeilingPlusIncrement() {
+        proxyBiddingService.registerProxyBid(auction, bid("alice", "110", "300", LocalDateTime.now().minusMinutes(5)));
+        
+        Bid challenger = bid("bob", "120", "800", LocalDateTime.now());
+        proxyBiddingService.registerProxyBid(auction, challenger);
+        auction.setCurrentPrice(challenger.getAmount());
+        
+        Optional<Bid> autoBid = proxyBiddingService.processProxyBidsForAuction(auction, challenger);
+        
+        assertThat(autoBid).isPresent();
+        assertThat(autoBid.get().getBidderId()).isEqualTo("bob");
+        assertThat(autoBid.get().getAmount()).isEqualByComparingTo("310");
+    }
+    
+    @Test
+    void testEarlierProxyWinsTieAtItsCeiling() {
+        proxyBiddingService.registerProxyBid(auction, bid("alice", "110", "400", LocalDateTime.now().minusMinutes(5)));
+        
+        Bid challenger = bid("bob", "120", "400", LocalDateTime.now());
+        proxyBiddingService.registerProxyBid(auction, challenger);
+        auction.setCurrentPrice(challenger.getAmount());
+        
+        Optional<Bid> autoBid = proxyBiddingService.processProxyBidsForAuction(auction, challenger);
+        
+        assertThat(autoBid).isPresent();
+        assertThat(autoBid.get().getBidderId()).isEqualTo("alice");
+        assertThat(autoBid.get().getAmount()).isEqualByComparingTo("400");
+    }
+    
+    @Test
+    void testExhaustedProxyDoesNotBid() {
+        proxyBiddingService.registerProxyBid(auction, bid("alice", "110", "150", LocalDateTime.now().minusMinutes(5)));
+        
+        Bid manual = bid("bob", "150", null, LocalDateTime.now());
+        auction.setCurrentPrice(manual.getAmount());
+        
+        assertThat(proxyBiddingService.processProxyBidsForAuction(auction, manual)).isEmpty();
+    }
+    
+    private Bid bid(String bidderId, String amount, String maxAmount, LocalDateTime bidTime) {
+        Bid bid = Bid.builder()
+            .auction(auction)
+            .bidderId(bidderId)
+            .amount(new BigDecimal(amount))
+            .maxAmount(maxAmount != null ? new BigDecimal(maxAmount) : null)
+            .bidTime(bidTime)
+            .source(Bid.BidSource.WEB)
+            .build();
+        bid.setId(UUID.randomUUID().toString());
+        return bid;
+    }
+}
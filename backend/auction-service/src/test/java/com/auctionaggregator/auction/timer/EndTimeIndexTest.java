@@ -0,0 +1,83 @@
+package com.auctionaggregator.auction.timer;
+
+import com.auctionaggregator.auction.entity.Auction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EndTimeIndexTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+    
+    private EndTimeIndex endTimeIndex;
+    
+    @BeforeEach
+    void setUp() {
+        endTimeIndex = new EndTimeIndex();
+    }
+    
+    @Test
+    void testPagesInEndTimeOrderWithinWindow() {
+        add("c", 30);
+        add("a", 10);
+        add("b", 10);
+        add("far", 60 * 48);
+        add("ended", -5);
+        
+        List<AuctionDeadline> first = endTimeIndex.page(NOW, NOW.plusHours(24), null, 2);
+        assertThat(ids(first)).containsExactly("a", "b");
+        
+        AuctionDeadline last = first.get(1);
+        List<AuctionDeadline> second = endTimeIndex.page(NOW, NOW.plusHours(24),
+            new EndTimeIndex.Position(last.endTime(), last.auctionId()), 2);
+        assertThat(ids(second)).containsExactly("c");
+    }
+    
+    @Test
+    void testExtensionMovesAuction() {
+        add("a", 10);
+        add("b", 20);
+        
+        add("a", 40);
+        
+        assertThat(ids(endTimeIndex.page(NOW, NOW.plusHours(1), null, 10))).containsExactly("b", "a");
+        assertThat(endTimeIndex.size()).isEqualTo(2);
+    }
+    
+    @Test
+    void testEndedAndRemovedAuctionsLeaveIndex() {
+        add("a", 10);
+        add("b", 20);
+        
+        endTimeIndex.update(new AuctionDeadline("a", Auction.AuctionStatus.ENDED, NOW.plusMinutes(10)));
+        endTimeIndex.remove("b");
+        
+        assertThat(endTimeIndex.all()).isEmpty();
+        assertThat(endTimeIndex.size()).isZero();
+    }
+    
+    @Test
+    void testReloadDropsAuctionsNoLongerLive() {
+        add("a", 10);
+        add("b", 20);
+        
+        endTimeIndex.reload(List.of(new AuctionDeadline("b", Auction.AuctionStatus.ENDING_SOON, NOW.plusMinutes(5))));
+        
+        assertThat(ids(endTimeIndex.all())).containsExactly("b");
+    }
+    
+    private void add(String auctionId, long minutesFromNow) {
+        endTimeIndex.update(new AuctionDeadline(auctionId, Auction.AuctionStatus.ACTIVE, NOW.plusMinutes(minutesFromNow)));
+    }
+    
+    private static List<String> ids(Iterable<AuctionDeadline> deadlines) {
+        List<String> ids = new ArrayList<>();
+        deadlines.forEach(deadline -> ids.add(deadline.auctionId()));
+        return ids;
+    }
+}
@@ -0,0 +1,68 @@
+package com.auctionaggregator.auction.timer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HierarchicalTimingWheelTest {
+    
+    private static final long START = 1_700_000_000_123L;
+    
+    private AtomicLong clock;
+    private HierarchicalTimingWheel<String> wheel;
+    
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(START);
+        wheel = new HierarchicalTimingWheel<>(1, 64, clock::get);
+    }
+    
+    @Test
+    void testTimersFireAtTheirExactDeadline() throws InterruptedException {
+        long[] delays = {5, 1_000, 90_000, TimeUnit.DAYS.toMillis(3)};
+        for (long delay : delays) {
+            assertThat(wheel.schedule("timer-" + delay, START + delay)).isTrue();
+        }
+        
+        for (long delay : delays) {
+            assertThat(advanceTo(START + delay - 1)).isEmpty();
+            assertThat(advanceTo(START + delay)).containsExactly("timer-" + delay);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+    
+    @Test
+    void testRescheduleReplacesPreviousDeadline() throws InterruptedException {
+        wheel.schedule("auction", START + 100);
+        wheel.schedule("auction", START + 5_000);
+        
+        assertThat(advanceTo(START + 100)).isEmpty();
+        assertThat(wheel.isScheduled("auction")).isTrue();
+        assertThat(advanceTo(START + 5_000)).containsExactly("auction");
+    }
+    
+    @Test
+    void testCancelledTimerNeverFires() throws InterruptedException {
+        wheel.schedule("auction", START + 200);
+        
+        assertThat(wheel.cancel("auction")).isTrue();
+        assertThat(advanceTo(START + 10_000)).isEmpty();
+        assertThat(wheel.cancel("auction")).isFalse();
+    }
+    
+    @Test
+    void testPastDeadlineIsRejected() {
+        assertThat(wheel.schedule("late", START - 1)).isFalse();
+        assertThat(wheel.isScheduled("late")).isFalse();
+    }
+    
+    private List<String> advanceTo(long time) throws InterruptedException {
+        clock.set(time);
+        return wheel.poll(0);
+    }
+}
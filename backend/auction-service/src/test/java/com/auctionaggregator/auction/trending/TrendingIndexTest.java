@@ -0,0 +1,79 @@
+package com.auctionaggregator.auction.trending;
+
+import com.auctionaggregator.auction.config.TrendingConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TrendingIndexTest {
+    
+    private static final long HOUR = 3600000;
+    
+    private AtomicLong clock;
+    private TrendingIndex trendingIndex;
+    
+    @BeforeEach
+    void setUp() {
+        TrendingConfiguration configuration = new TrendingConfiguration();
+        configuration.setHalfLife(HOUR);
+        clock = new AtomicLong(1_700_000_000_000L);
+        trendingIndex = new TrendingIndex(null, configuration, clock::get);
+    }
+    
+    @Test
+    void testRecentActivityOutranksOlderActivity() {
+        record("old", 10, 0);
+        
+        clock.addAndGet(2 * HOUR);
+        record("new", 3, 0);
+        
+        // Ten views two half-lives ago are worth 2.5 views now
+        assertThat(trendingIndex.top(2)).containsExactly("new", "old");
+    }
+    
+    @Test
+    void testBidsWeighMoreThanViews() {
+        record("viewed", 5, 0);
+        record("bid-on", 0, 1);
+        
+        assertThat(trendingIndex.top(2)).containsExactly("bid-on", "viewed");
+    }
+    
+    @Test
+    void testTopIsLimitedAndExcludesRemovedAuctions() {
+        record("a", 3, 0);
+        record("b", 2, 0);
+        record("c", 1, 0);
+        
+        trendingIndex.remove("a");
+        
+        assertThat(trendingIndex.top(1)).containsExactly("b");
+        assertThat(trendingIndex.top(10)).containsExactly("b", "c");
+        assertThat(trendingIndex.size()).isEqualTo(2);
+    }
+    
+    @Test
+    void testRebaseKeepsRanking() {
+        record("a", 4, 0);
+        clock.addAndGet(HOUR);
+        record("b", 3, 0);
+        
+        clock.addAndGet(24 * HOUR);
+        trendingIndex.rebase();
+        trendingIndex.recordView("c");
+        
+        assertThat(trendingIndex.top(3)).containsExactly("c", "b", "a");
+    }
+    
+    private void record(String auctionId, int views, int bids) {
+        for (int i = 0; i < views; i++) {
+            trendingIndex.recordView(auctionId);
+        }
+        for (int i = 0; i < bids; i++) {
+            trendingIndex.recordBid(auctionId);
+        }
+    }
+}
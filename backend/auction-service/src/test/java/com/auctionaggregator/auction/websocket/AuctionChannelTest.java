@@ -0,0 +1,79 @@
+package com.auctionaggregator.auction.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AuctionChannelTest {
+    
+    private AuctionChannel channel;
+    private SessionOutbox outbox;
+    private WebSocketSession session;
+    
+    @BeforeEach
+    void setUp() {
+        session = mock(WebSocketSession.class);
+        when(session.isOpen()).thenReturn(true);
+        outbox = mock(SessionOutbox.class);
+        when(outbox.getSession()).thenReturn(session);
+        
+        channel = new AuctionChannel("auction-1");
+        channel.add("session-1", outbox);
+    }
+    
+    @Test
+    void testPricesAreConflatableAndEventsAreNot() {
+        channel.deliver(List.of(
+            new AuctionUpdate("auction-1", true, "price 100"),
+            new AuctionUpdate("auction-1", false, "ended")));
+        
+        InOrder order = inOrder(outbox);
+        order.verify(outbox).offer("auction-1", new TextMessage("price 100"));
+        order.verify(outbox).offer(null, new TextMessage("ended"));
+    }
+    
+    @Test
+    void testClosedSessionsAreSkipped() {
+        when(session.isOpen()).thenReturn(false);
+        
+        channel.deliver(List.of(new AuctionUpdate("auction-1", false, "ended")));
+        
+        verify(outbox, never()).offer(any(), any());
+    }
+    
+    @Test
+    void testCancelSubscriptionOnce() {
+        AuctionUpdateBus.Subscription subscription = mock(AuctionUpdateBus.Subscription.class);
+        channel.setSubscription(subscription);
+        
+        channel.remove("session-1");
+        channel.cancelSubscription();
+        channel.cancelSubscription();
+        
+        assertThat(channel.isEmpty()).isTrue();
+        verify(subscription).cancel();
+    }
+    
+    @Test
+    void testSubscriptionArrivingAfterCancelIsCancelled() {
+        AuctionUpdateBus.Subscription subscription = mock(AuctionUpdateBus.Subscription.class);
+        
+        channel.remove("session-1");
+        channel.cancelSubscription();
+        channel.setSubscription(subscription);
+        
+        verify(subscription).cancel();
+    }
+}
@@ -0,0 +1,138 @@
+package com.auctionaggregator.auction.websocket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AuctionUpdatePublisherTest {
+    
+    private final List<List<AuctionUpdate>> published = new CopyOnWriteArrayList<>();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final CountDownLatch publishing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private AuctionUpdatePublisher publisher;
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+    }
+    
+    @Test
+    void testUpdatesArePublishedInOrderInBatchesOfAtMostBatchSize() throws Exception {
+        publisher = new AuctionUpdatePublisher(bus(false), 100, 3, 50, dropped::incrementAndGet);
+        
+        for (int i = 1; i <= 7; i++) {
+            assertThat(publisher.enqueue(update(i))).isTrue();
+        }
+        
+        awaitPayloads(7);
+        assertThat(payloads()).containsExactly("1", "2", "3", "4", "5", "6", "7");
+        assertThat(published).allMatch(batch -> batch.size() <= 3);
+    }
+    
+    @Test
+    void testLoneUpdateIsPublishedAfterTheInterval() throws Exception {
+        publisher = new AuctionUpdatePublisher(bus(false), 100, 100, 20, dropped::incrementAndGet);
+        
+        publisher.enqueue(update(1));
+        
+        awaitPayloads(1);
+        assertThat(published).hasSize(1);
+    }
+    
+    @Test
+    void testUpdatesQueuedDuringAPublishShareTheNextBatch() throws Exception {
+        publisher = new AuctionUpdatePublisher(bus(true), 100, 100, 0, dropped::incrementAndGet);
+        publisher.enqueue(update(1));
+        assertThat(publishing.await(2, TimeUnit.SECONDS)).isTrue();
+        
+        publisher.enqueue(update(2));
+        publisher.enqueue(update(3));
+        release.countDown();
+        
+        awaitPayloads(3);
+        assertThat(published).hasSize(2);
+        assertThat(published.get(1)).extracting(AuctionUpdate::payload).containsExactly("2", "3");
+    }
+    
+    @Test
+    void testFullBufferDropsNewUpdates() throws Exception {
+        publisher = new AuctionUpdatePublisher(bus(true), 2, 1, 0, dropped::incrementAndGet);
+        publisher.enqueue(update(1));
+        assertThat(publishing.await(2, TimeUnit.SECONDS)).isTrue();
+        
+        assertThat(publisher.enqueue(update(2))).isTrue();
+        assertThat(publisher.enqueue(update(3))).isTrue();
+        assertThat(publisher.enqueue(update(4))).isFalse();
+        assertThat(dropped).hasValue(1);
+        
+        release.countDown();
+        awaitPayloads(3);
+        assertThat(payloads()).containsExactly("1", "2", "3");
+    }
+    
+    @Test
+    void testShutdownPublishesBufferedUpdates() {
+        publisher = new AuctionUpdatePublisher(bus(false), 100, 100, 60_000, dropped::incrementAndGet);
+        publisher.enqueue(update(1));
+        publisher.enqueue(update(2));
+        
+        publisher.shutdown();
+        
+        assertThat(payloads()).containsExactly("1", "2");
+    }
+    
+    private AuctionUpdateBus bus(boolean blockFirstPublish) {
+        return new AuctionUpdateBus() {
+            
+            @Override
+            public void publish(List<AuctionUpdate> updates) {
+                if (blockFirstPublish && publishing.getCount() > 0) {
+                    publishing.countDown();
+                    awaitRelease();
+                }
+                published.add(updates);
+            }
+            
+            @Override
+            public Subscription subscribe(String auctionId, Consumer<List<AuctionUpdate>> receiver) {
+                return () -> { };
+            }
+        };
+    }
+    
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void awaitPayloads(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (payloads().size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(payloads()).hasSize(count);
+    }
+    
+    private List<String> payloads() {
+        return published.stream().flatMap(List::stream).map(AuctionUpdate::payload).toList();
+    }
+    
+    private static AuctionUpdate update(int sequence) {
+        return new AuctionUpdate("auction-1", true, String.valueOf(sequence));
+    }
+}
@@ -0,0 +1,227 @@
+package com.auctionaggregator.auction.websocket;
+
+import com.auctionaggregator.auction.config.WebSocketBroadcastConfiguration;
+import com.auctionaggregator.auction.entity.Bid;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BidWebSocketHandlerTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<BidWebSocketHandler> handlers = new ArrayList<>();
+    private WebSocketBroadcastConfiguration configuration;
+    private LocalAuctionUpdateBus bus;
+    private BidWebSocketHandler handler;
+    
+    @BeforeEach
+    void setUp() {
+        configuration = new WebSocketBroadcastConfiguration();
+        configuration.setMaxSubscriptionsPerSession(3);
+        bus = new LocalAuctionUpdateBus();
+        handler = node();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        handlers.forEach(BidWebSocketHandler::shutdown);
+    }
+    
+    @Test
+    void testOneConnectionReceivesUpdatesOfEverySubscribedAuction() throws Exception {
+        Client client = connect("session-1");
+        
+        client.send("{\"type\":\"SUBSCRIBE\",\"auctionIds\":[\"auction-1\",\"auction-2\"]}");
+        handler.broadcastAuctionUpdate("auction-1", "ENDED", null);
+        handler.broadcastAuctionUpdate("auction-2", "EXTENDED", null);
+        handler.broadcastAuctionUpdate("auction-3", "ENDED", null);
+        
+        client.awaitMessages(4);
+        assertThat(client.types()).containsExactly("CONNECTION", "SUBSCRIBED", "ENDED", "EXTENDED");
+        assertThat(handler.getTotalActiveConnections()).isEqualTo(1);
+        assertThat(handler.getActiveConnectionsCount("auction-1")).isEqualTo(1);
+        assertThat(handler.getActiveConnectionsCount("auction-2")).isEqualTo(1);
+    }
+    
+    @Test
+    void testUnsubscribeStopsUpdates() throws Exception {
+        Client client = connect("session-1");
+        client.send("{\"type\":\"SUBSCRIBE\",\"auctionIds\":[\"auction-1\",\"auction-2\"]}");
+        
+        client.send("{\"type\":\"UNSUBSCRIBE\",\"auctionIds\":[\"auction-1\"]}");
+        handler.broadcastAuctionUpdate("auction-1", "ENDED", null);
+        handler.broadcastAuctionUpdate("auction-2", "EXTENDED", null);
+        
+        client.awaitMessages(4);
+        assertThat(client.types()).containsExactly("CONNECTION", "SUBSCRIBED", "SUBSCRIBED", "EXTENDED");
+        assertThat(client.messages.get(2).get("data")).isEqualTo(List.of("auction-2"));
+        assertThat(handler.getActiveConnectionsCount("auction-1")).isZero();
+    }
+    
+    @Test
+    void testEveryBidReachesSessionsThatKeepUp() throws Exception {
+        Client client = connect("session-1");
+        client.send("{\"type\":\"SUBSCRIBE\",\"auctionIds\":[\"auction-1\"]}");
+        client.awaitMessages(2);
+        
+        handler.broadcastBidUpdate("auction-1", bid("100"));
+        client.awaitMessages(3);
+        handler.broadcastBidUpdate("auction-1", bid("110"));
+        client.awaitMessages(4);
+        handler.broadcastBidUpdate("auction-1", bid("120"));
+        
+        client.awaitMessages(5);
+        assertThat(client.types()).containsExactly("CONNECTION", "SUBSCRIBED", "BID_PLACED", "BID_PLACED", "BID_PLACED");
+        assertThat(client.messages.stream().skip(2).map(message -> message.get("amount").toString()))
+            .containsExactly("100", "110", "120");
+    }
+    
+    @Test
+    void testEventIsDeliveredAfterEarlierBid() throws Exception {
+        Client client = connect("session-1");
+        client.send("{\"type\":\"SUBSCRIBE\",\"auctionIds\":[\"auction-1\"]}");
+        client.awaitMessages(2);
+        
+        handler.broadcastBidUpdate("auction-1", bid("100"));
+        handler.broadcastAuctionUpdate("auction-1", "ENDED", null);
+        
+        client.awaitMessages(4);
+        assertThat(client.types()).containsExactly("CONNECTION", "SUBSCRIBED", "BID_PLACED", "ENDED");
+    }
+    
+    @Test
+    void testUpdatesReachSessionsOnOtherNodes() throws Exception {
+        BidWebSocketHandler otherNode = node();
+        Client client = new Client(otherNode, "session-1");
+        otherNode.afterConnectionEstablished(client.session);
+        client.send("{\"type\":\"SUBSCRIBE\",\"auctionIds\":[\"auction-1\"]}");
+        
+        handler.broadcastBidUpdate("auction-1", bid("100"));
+        handler.broadcastAuctionUpdate("auction-1", "ENDED", null);
+        
+        client.awaitMessages(4);
+        assertThat(client.types()).containsExactly("CONNECTION", "SUBSCRIBED", "BID_PLACED", "ENDED");
+    }
+    
+    @Test
+    void testNodeSubscribesToBusOnlyWhileItHasSessionsForTheAuction() throws Exception {
+        Client first = connect("session-1");
+        Client second = connect("session-2");
+        first.send("{\"type\":\"SUBSCRIBE\",\"auctionIds\":[\"auction-1\"]}");
+        second.send("{\"type\":\"SUBSCRIBE\",\"auctionIds\":[\"auction-1\"]}");
+        assertThat(bus.getSubscriberCount("auction-1")).isEqualTo(1);
+        assertThat(bus.getSubscriberCount("auction-2")).isZero();
+        
+        handler.afterConnectionClosed(first.session, CloseStatus.NORMAL);
+        assertThat(bus.getSubscriberCount("auction-1")).isEqualTo(1);
+        
+        second.send("{\"type\":\"UNSUBSCRIBE\",\"auctionIds\":[\"auction-1\"]}");
+        assertThat(bus.getSubscriberCount("auction-1")).isZero();
+    }
+    
+    @Test
+    void testCloseRemovesSessionFromEveryAuction() throws Exception {
+        Client first = connect("session-1");
+        Client second = connect("session-2");
+        first.send("{\"type\":\"SUBSCRIBE\",\"auctionIds\":[\"auction-1\",\"auction-2\"]}");
+        second.send("{\"type\":\"SUBSCRIBE\",\"auctionIds\":[\"auction-2\"]}");
+        
+        handler.afterConnectionClosed(first.session, CloseStatus.NORMAL);
+        
+        assertThat(handler.getTotalActiveConnections()).isEqualTo(1);
+        assertThat(handler.getActiveConnectionsCount("auction-1")).isZero();
+        assertThat(handler.getActiveConnectionsCount("auction-2")).isEqualTo(1);
+    }
+    
+    @Test
+    void testSubscriptionsAreLimitedPerConnection() throws Exception {
+        Client client = connect("session-1");
+        
+        client.send("{\"type\":\"SUBSCRIBE\",\"auctionIds\":[\"a\",\"b\",\"c\",\"d\"]}");
+        
+        client.awaitMessages(3);
+        assertThat(client.types()).containsExactly("CONNECTION", "ERROR", "SUBSCRIBED");
+        assertThat(client.messages.get(2).get("data")).isEqualTo(List.of("a", "b", "c"));
+        assertThat(handler.getActiveConnectionsCount("d")).isZero();
+    }
+    
+    @Test
+    void testInvalidRequestIsAnsweredWithError() throws Exception {
+        Client client = connect("session-1");
+        
+        client.send("ping");
+        client.send("{\"type\":\"SUBSCRIBE\"}");
+        
+        client.awaitMessages(3);
+        assertThat(client.types()).containsExactly("CONNECTION", "ERROR", "ERROR");
+    }
+    
+    private BidWebSocketHandler node() {
+        BidWebSocketHandler node = new BidWebSocketHandler(objectMapper, configuration, bus, new SimpleMeterRegistry());
+        handlers.add(node);
+        return node;
+    }
+    
+    private Client connect(String sessionId) throws Exception {
+        Client client = new Client(handler, sessionId);
+        handler.afterConnectionEstablished(client.session);
+        return client;
+    }
+    
+    private Bid bid(String amount) {
+        return Bid.builder()
+            .bidderId("bidder-12345")
+            .amount(new BigDecimal(amount))
+            .bidTime(LocalDateTime.now())
+            .build();
+    }
+    
+    private class Client {
+        
+        private final BidWebSocketHandler node;
+        private final WebSocketSession session = mock(WebSocketSession.class);
+        private final List<Map<String, Object>> messages = new CopyOnWriteArrayList<>();
+        
+        Client(BidWebSocketHandler node, String sessionId) throws IOException {
+            this.node = node;
+            when(session.getId()).thenReturn(sessionId);
+            when(session.isOpen()).thenReturn(true);
+            doAnswer(invocation -> messages.add(objectMapper.readValue(
+                invocation.<TextMessage>getArgument(0).getPayload(), Map.class)))
+                .when(session).sendMessage(any());
+        }
+        
+        void send(String payload) throws Exception {
+            node.handleTextMessage(session, new TextMessage(payload));
+        }
+        
+        void awaitMessages(int count) throws IOException {
+            verify(session, timeout(2000).times(count)).sendMessage(any());
+        }
+        
+        List<Object> types() {
+            return messages.stream().map(message -> message.get("type")).toList();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.auctionaggregator.auction.websocket;
+
+import com.auctionaggregator.auction.config.WebSocketBroadcastConfiguration.OverflowPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SessionOutboxTest {
+    
+    private WebSocketSession session;
+    private ManualExecutor sender;
+    private List<String> sent;
+    private List<OverflowPolicy> overflows;
+    private int conflated;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("session-1");
+        when(session.isOpen()).thenReturn(true);
+        sent = new ArrayList<>();
+        doAnswer(invocation -> sent.add(invocation.<TextMessage>getArgument(0).getPayload()))
+            .when(session).sendMessage(any());
+        sender = new ManualExecutor();
+        overflows = new ArrayList<>();
+    }
+    
+    @Test
+    void testMessagesAreSentInOrderByASingleTask() {
+        SessionOutbox outbox = outbox(10, OverflowPolicy.DROP_OLDEST, 100);
+        
+        outbox.offer(message("a"));
+        outbox.offer(message("b"));
+        outbox.offer(message("c"));
+        
+        assertThat(sender.pending()).isEqualTo(1);
+        sender.runAll();
+        assertThat(sent).containsExactly("a", "b", "c");
+        assertThat(outbox.size()).isZero();
+    }
+    
+    @Test
+    void testQueuedUpdateIsReplacedByNewerOneWithSameKey() {
+        SessionOutbox outbox = outbox(10, OverflowPolicy.DROP_OLDEST, 100);
+        
+        outbox.offer("auction-1", message("price 100"));
+        outbox.offer(message("extended"));
+        outbox.offer("auction-2", message("other 50"));
+        outbox.offer("auction-1", message("price 110"));
+        outbox.offer("auction-1", message("price 120"));
+        sender.runAll();
+        
+        assertThat(sent).containsExactly("extended", "other 50", "price 120");
+        assertThat(conflated).isEqualTo(2);
+        assertThat(overflows).isEmpty();
+    }
+    
+    @Test
+    void testNewerUpdateStaysBehindEventQueuedBeforeIt() {
+        SessionOutbox outbox = outbox(10, OverflowPolicy.DROP_OLDEST, 100);
+        
+        outbox.offer("auction-1", message("price 100"));
+        outbox.offer(message("EXTENDED"));
+        outbox.offer("auction-1", message("price 110"));
+        sender.runAll();
+        
+        // The event stays where it was queued; only the price moves behind it
+        assertThat(sent).containsExactly("EXTENDED", "price 110");
+        assertThat(conflated).isEqualTo(1);
+    }
+    
+    @Test
+    void testUpdateAfterDrainIsQueuedAgain() {
+        SessionOutbox outbox = outbox(10, OverflowPolicy.DROP_OLDEST, 100);
+        
+        outbox.offer("auction-1", message("price 100"));
+        sender.runAll();
+        outbox.offer("auction-1", message("price 110"));
+        sender.runAll();
+        
+        assertThat(sent).containsExactly("price 100", "price 110");
+        assertThat(conflated).isZero();
+    }
+    
+    @Test
+    void testFullQueueDropsOldestUpdate() {
+        SessionOutbox outbox = outbox(3, OverflowPolicy.DROP_OLDEST, 100);
+        
+        for (String key : List.of("1", "2", "3", "4", "5")) {
+            assertThat(outbox.offer(key, message(key))).isTrue();
+        }
+        sender.runAll();
+        
+        assertThat(sent).containsExactly("3", "4", "5");
+        assertThat(overflows).containsExactly(OverflowPolicy.DROP_OLDEST, OverflowPolicy.DROP_OLDEST);
+    }
+    
+    @Test
+    void testFullQueueNeverDropsEvents() {
+        SessionOutbox outbox = outbox(3, OverflowPolicy.DROP_OLDEST, 100);
+        
+        outbox.offer(message("ending soon"));
+        outbox.offer("auction-1", message("price 100"));
+        outbox.offer(message("extended"));
+        assertThat(outbox.offer(message("ended"))).isTrue();
+        sender.runAll();
+        
+        assertThat(sent).containsExactly("ending soon", "extended", "ended");
+    }
+    
+    @Test
+    void testFullQueueOfEventsDisconnects() throws IOException {
+        SessionOutbox outbox = outbox(2, OverflowPolicy.DROP_OLDEST, 100);
+        
+        outbox.offer(message("ending soon"));
+        outbox.offer(message("extended"));
+        assertThat(outbox.offer("auction-1", message("price 100"))).isFalse();
+        sender.runAll();
+        
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(sent).isEmpty();
+        assertThat(overflows).containsExactly(OverflowPolicy.DISCONNECT);
+    }
+    
+    @Test
+    void testFullQueueDisconnectsSlowConsumer() throws IOException {
+        SessionOutbox outbox = outbox(2, OverflowPolicy.DISCONNECT, 100);
+        
+        outbox.offer(message("1"));
+        outbox.offer(message("2"));
+        assertThat(outbox.offer(message("3"))).isFalse();
+        assertThat(outbox.offer(message("4"))).isFalse();
+        sender.runAll();
+        
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(sent).isEmpty();
+        assertThat(overflows).containsExactly(OverflowPolicy.DISCONNECT);
+    }
+    
+    @Test
+    void testDrainYieldsAfterABatch() {
+        SessionOutbox outbox = outbox(10, OverflowPolicy.DROP_OLDEST, 2);
+        for (String payload : List.of("1", "2", "3", "4", "5")) {
+            outbox.offer(message(payload));
+        }
+        
+        sender.runNext();
+        assertThat(sent).containsExactly("1", "2");
+        assertThat(sender.pending()).isEqualTo(1);
+        
+        sender.runAll();
+        assertThat(sent).containsExactly("1", "2", "3", "4", "5");
+    }
+    
+    @Test
+    void testSendFailureClosesOutbox() throws IOException {
+        doThrow(new IOException("broken pipe")).when(session).sendMessage(any());
+        SessionOutbox outbox = outbox(10, OverflowPolicy.DROP_OLDEST, 100);
+        
+        outbox.offer(message("1"));
+        outbox.offer(message("2"));
+        sender.runAll();
+        
+        assertThat(outbox.offer(message("3"))).isFalse();
+        assertThat(outbox.size()).isZero();
+    }
+    
+    private SessionOutbox outbox(int capacity, OverflowPolicy policy, int batchSize) {
+        return new SessionOutbox(session, sender, capacity, policy, batchSize, new SessionOutbox.Listener() {
+            
+            @Override
+            public void onOverflow(SessionOutbox outbox, OverflowPolicy overflow) {
+                overflows.add(overflow);
+            }
+            
+            @Override
+            public void onConflated(SessionOutbox outbox) {
+                conflated++;
+            }
+        });
+    }
+    
+    private TextMessage message(String payload) {
+        return new TextMessage(payload);
+    }
+    
+    private static class ManualExecutor implements Executor {
+        
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+        
+        @Override
+        public void execute(Runnable task) {
+            tasks.addLast(task);
+        }
+        
+        int pending() {
+            return tasks.size();
+        }
+        
+        void runNext() {
+            tasks.removeFirst().run();
+        }
+        
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                runNext();
+            }
+        }
+    }
+}